@@ -49,11 +49,14 @@ import org.cubeengine.converter.converter.LocaleConverter;
 import org.cubeengine.converter.converter.LongConverter;
 import org.cubeengine.converter.converter.ShortConverter;
 import org.cubeengine.converter.converter.StringConverter;
+import org.cubeengine.converter.converter.ThreadSafeConverter;
 import org.cubeengine.converter.converter.UUIDConverter;
 import org.cubeengine.converter.converter.generic.ArrayConverter;
 import org.cubeengine.converter.converter.generic.CollectionConverter;
 import org.cubeengine.converter.converter.generic.GenericConverter;
 import org.cubeengine.converter.converter.generic.MapConverter;
+import org.cubeengine.converter.node.KeyPool;
+import org.cubeengine.converter.node.MapNode;
 import org.cubeengine.converter.node.Node;
 import org.cubeengine.converter.node.NullNode;
 
@@ -64,7 +67,15 @@ import static java.util.Map.Entry;
  */
 public class ConverterManager
 {
-    private ConverterManager parent;
+    private volatile ConverterManager parent;
+    /**
+     * Whether created MapNodes are case-sensitive or null to use the setting of the fallback
+     */
+    private volatile Boolean caseSensitiveKeys;
+    /**
+     * The pool for keys of created MapNodes or null to use the pool of the fallback
+     */
+    private volatile KeyPool keyPool;
 
     private Map<Class<?>, Converter> converters = new ConcurrentHashMap<Class<?>, Converter>();
     private Map<Class, Converter> convertersByClass = new ConcurrentHashMap<Class, Converter>();
@@ -375,4 +386,98 @@ public class ConverterManager
         }
         return converter;
     }
+
+    /**
+     * Returns whether every Converter of this manager and its fallbacks is a {@link ThreadSafeConverter}
+     * <p>Only then a single conversion may be split across several threads
+     *
+     * @return true if all converters are thread-safe
+     */
+    public final boolean isThreadSafe()
+    {
+        for (Converter converter : this.convertersByClass.values())
+        {
+            if (!(converter instanceof ThreadSafeConverter))
+            {
+                return false;
+            }
+        }
+        return this.parent == null || this.parent.isThreadSafe();
+    }
+
+    /**
+     * Sets whether the MapNodes created by converters of this manager and the managers falling back to it keep
+     * their keys as they are instead of trimming and lowercasing them
+     * <p>Section fields and map keys then only match keys with the exact same case. Use this on the
+     * ConverterManager of a Codec for formats that do not need normalized keys.
+     *
+     * @param caseSensitive true to create case-sensitive MapNodes
+     *
+     * @return fluent interface
+     */
+    public final ConverterManager setCaseSensitiveKeys(boolean caseSensitive)
+    {
+        this.caseSensitiveKeys = caseSensitive;
+        return this;
+    }
+
+    /**
+     * Returns whether created MapNodes are case-sensitive
+     * <p>Unless set on this manager the setting of its fallback is used, case-insensitive by default
+     *
+     * @return true if created MapNodes are case-sensitive
+     */
+    public final boolean isCaseSensitiveKeys()
+    {
+        Boolean caseSensitive = this.caseSensitiveKeys;
+        if (caseSensitive != null)
+        {
+            return caseSensitive;
+        }
+        return this.parent != null && this.parent.isCaseSensitiveKeys();
+    }
+
+    /**
+     * Creates an empty MapNode for converters to fill
+     *
+     * @return the MapNode
+     *
+     * @see #setCaseSensitiveKeys(boolean)
+     */
+    public final MapNode newMapNode()
+    {
+        return new MapNode(this.isCaseSensitiveKeys(), this.getKeyPool());
+    }
+
+    /**
+     * Sets the pool the MapNodes created by converters of this manager and the managers falling back to it take
+     * their keys from
+     * <p>Set it on the ConverterManager of a Codec to share keys among all documents of that Codec or on the
+     * default ConverterManager of a Reflector to share them among all its Codecs.
+     *
+     * @param keyPool the pool or null to use the pool of the fallback
+     *
+     * @return fluent interface
+     */
+    public final ConverterManager setKeyPool(KeyPool keyPool)
+    {
+        this.keyPool = keyPool;
+        return this;
+    }
+
+    /**
+     * Returns the pool for keys of created MapNodes
+     * <p>Unless set on this manager the pool of its fallback is used
+     *
+     * @return the pool or null if keys are not pooled
+     */
+    public final KeyPool getKeyPool()
+    {
+        KeyPool pool = this.keyPool;
+        if (pool != null)
+        {
+            return pool;
+        }
+        return this.parent == null ? null : this.parent.getKeyPool();
+    }
 }
@@ -29,7 +29,7 @@ import org.cubeengine.converter.node.Node;
 /**
  * A Converter for {@link Boolean}
  */
-public class BooleanConverter extends SimpleConverter<Boolean>
+public class BooleanConverter extends SimpleConverter<Boolean> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(Boolean object) throws ConversionException
@@ -42,7 +42,7 @@ public class BooleanConverter extends SimpleConverter<Boolean>
     {
         if (node instanceof BooleanNode)
         {
-            return ((BooleanNode)node).getValue();
+            return ((BooleanNode)node).getBoolean();
         }
         String s = node.asText();
         if (s == null)
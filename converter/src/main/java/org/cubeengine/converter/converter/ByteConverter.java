@@ -26,7 +26,7 @@ import org.cubeengine.converter.ConversionException;
 import org.cubeengine.converter.node.ByteNode;
 import org.cubeengine.converter.node.Node;
 
-public class ByteConverter extends SimpleConverter<Byte>
+public class ByteConverter extends SimpleConverter<Byte> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(Byte object) throws ConversionException
@@ -39,7 +39,7 @@ public class ByteConverter extends SimpleConverter<Byte>
     {
         if (node instanceof ByteNode)
         {
-            return ((ByteNode)node).getValue();
+            return ((ByteNode)node).getByte();
         }
         String s = node.asText();
         try
@@ -26,7 +26,7 @@ import org.cubeengine.converter.ConversionException;
 import org.cubeengine.converter.node.Node;
 import org.cubeengine.converter.node.StringNode;
 
-public class ClassConverter extends SimpleConverter<Class<?>>
+public class ClassConverter extends SimpleConverter<Class<?>> implements ThreadSafeConverter
 {
 	@Override
 	public Node toNode(Class<?> object) throws ConversionException
@@ -31,7 +31,7 @@ import org.cubeengine.converter.node.StringNode;
 /**
  * A Converter for {@link java.sql.Date}
  */
-public class DateConverter extends SimpleConverter<Date>
+public class DateConverter extends SimpleConverter<Date> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(Date object) throws ConversionException
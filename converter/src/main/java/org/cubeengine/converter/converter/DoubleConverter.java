@@ -29,7 +29,7 @@ import org.cubeengine.converter.node.Node;
 /**
  * A Converter for {@link java.lang.Double}
  */
-public class DoubleConverter extends SimpleConverter<Double>
+public class DoubleConverter extends SimpleConverter<Double> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(Double object) throws ConversionException
@@ -42,7 +42,7 @@ public class DoubleConverter extends SimpleConverter<Double>
     {
         if (node instanceof DoubleNode)
         {
-            return ((DoubleNode)node).getValue();
+            return ((DoubleNode)node).getDouble();
         }
         String s = node.asText();
         try
@@ -30,7 +30,7 @@ import org.cubeengine.converter.node.StringNode;
 /**
  * A converter for generic enums
  */
-public class EnumConverter implements ClassedConverter<Enum>
+public class EnumConverter implements ClassedConverter<Enum>, ThreadSafeConverter
 {
     public Node toNode(Enum object, ConverterManager manager) throws ConversionException
     {
@@ -30,7 +30,7 @@ import org.cubeengine.converter.node.StringNode;
 /**
  * A converter for {@link File}.
  */
-public class FileConverter extends SimpleConverter<File>
+public class FileConverter extends SimpleConverter<File> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(File object) throws ConversionException
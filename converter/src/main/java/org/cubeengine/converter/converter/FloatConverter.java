@@ -29,7 +29,7 @@ import org.cubeengine.converter.node.Node;
 /**
  * A Converter for {@link java.lang.Float}
  */
-public class FloatConverter extends SimpleConverter<Float>
+public class FloatConverter extends SimpleConverter<Float> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(Float object) throws ConversionException
@@ -42,7 +42,7 @@ public class FloatConverter extends SimpleConverter<Float>
     {
         if (node instanceof FloatNode)
         {
-            return ((FloatNode)node).getValue();
+            return ((FloatNode)node).getFloat();
         }
         String s = node.asText();
         try
@@ -29,7 +29,7 @@ import org.cubeengine.converter.node.Node;
 /**
  * A Converter for {@link java.lang.Integer}
  */
-public class IntegerConverter extends SimpleConverter<Integer>
+public class IntegerConverter extends SimpleConverter<Integer> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(Integer object) throws ConversionException
@@ -42,7 +42,7 @@ public class IntegerConverter extends SimpleConverter<Integer>
     {
         if (node instanceof IntNode)
         {
-            return ((IntNode)node).getValue();
+            return ((IntNode)node).getInt();
         }
         String s = node.asText();
         try
@@ -32,7 +32,7 @@ import org.cubeengine.converter.node.StringNode;
 /**
  * A Converter for {@link java.util.logging.Level}
  */
-public class LevelConverter extends SimpleConverter<Level>
+public class LevelConverter extends SimpleConverter<Level> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(Level object) throws ConversionException
@@ -54,10 +54,10 @@ public class LevelConverter extends SimpleConverter<Level>
                 throw ConversionException.of(this, node, "Unknown Level: " + ((StringNode)node).getValue(), e);
             }
         }
-        else if (node instanceof BooleanNode && !((BooleanNode)node).getValue())
+        else if (node instanceof BooleanNode && !((BooleanNode)node).getBoolean())
         {
             // OFF is interpreted as a boolean false, ALL as a boolean true
-            if ((Boolean)node.getValue())
+            if (((BooleanNode)node).getBoolean())
             {
                 return Level.ALL;
             }
@@ -31,7 +31,7 @@ import org.cubeengine.converter.node.StringNode;
 /**
  * A Converter for {@link java.util.Locale}
  */
-public class LocaleConverter extends SimpleConverter<Locale>
+public class LocaleConverter extends SimpleConverter<Locale> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(Locale locale) throws ConversionException
@@ -29,7 +29,7 @@ import org.cubeengine.converter.node.Node;
 /**
  * A Converter for {@link java.lang.Long}
  */
-public class LongConverter extends SimpleConverter<Long>
+public class LongConverter extends SimpleConverter<Long> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(Long object) throws ConversionException
@@ -42,7 +42,7 @@ public class LongConverter extends SimpleConverter<Long>
     {
         if (node instanceof LongNode)
         {
-            return ((LongNode)node).getValue();
+            return ((LongNode)node).getLong();
         }
         String s = node.asText();
         try
@@ -29,7 +29,7 @@ import org.cubeengine.converter.node.ShortNode;
 /**
  * A Converter for {@link java.lang.Short}
  */
-public class ShortConverter extends SimpleConverter<Short>
+public class ShortConverter extends SimpleConverter<Short> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(Short object) throws ConversionException
@@ -42,7 +42,7 @@ public class ShortConverter extends SimpleConverter<Short>
     {
         if (node instanceof ShortNode)
         {
-            return ((ShortNode)node).getValue();
+            return ((ShortNode)node).getShort();
         }
         String s = node.asText();
         try
@@ -29,7 +29,7 @@ import org.cubeengine.converter.node.StringNode;
 /**
  * A Converter for {@link java.lang.String}
  */
-public class StringConverter extends SimpleConverter<String>
+public class StringConverter extends SimpleConverter<String> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(String object) throws ConversionException
@@ -31,7 +31,7 @@ import org.cubeengine.converter.node.StringNode;
 /**
  * A Converter for {@link java.util.UUID}
  */
-public class UUIDConverter extends SimpleConverter<UUID>
+public class UUIDConverter extends SimpleConverter<UUID> implements ThreadSafeConverter
 {
     @Override
     public Node toNode(UUID object) throws ConversionException
@@ -28,13 +28,14 @@ import java.util.List;
 import org.cubeengine.converter.ConversionException;
 import org.cubeengine.converter.ConverterManager;
 import org.cubeengine.converter.converter.ClassedConverter;
+import org.cubeengine.converter.converter.ThreadSafeConverter;
 import org.cubeengine.converter.node.ListNode;
 import org.cubeengine.converter.node.Node;
 
 /**
  * Converts ListNode to Array and vice versa
  */
-public class ArrayConverter implements ClassedConverter<Object>
+public class ArrayConverter implements ClassedConverter<Object>, ThreadSafeConverter
 {
     public Node toNode(Object array, ConverterManager manager) throws ConversionException
     {
@@ -28,20 +28,62 @@ import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 import org.cubeengine.converter.ConversionException;
 import org.cubeengine.converter.ConverterManager;
+import org.cubeengine.converter.converter.ThreadSafeConverter;
 import org.cubeengine.converter.node.ListNode;
 import org.cubeengine.converter.node.Node;
 
 /**
  * Converts ListNode to Collection and vice versa
  */
-public class CollectionConverter implements GenericConverter<Collection>
+public class CollectionConverter implements GenericConverter<Collection>, ThreadSafeConverter
 {
+    private volatile int parallelThreshold = 0;
+    private volatile ForkJoinPool pool = null;
+
+    /**
+     * Sets the size from which collections are converted in parallel
+     * <p>Only if every Converter of the ConverterManager is a {@link ThreadSafeConverter} the elements get split
+     * into fork/join tasks. The order of the converted elements is kept.
+     *
+     * @param threshold the minimum size or 0 to always convert on the calling thread
+     */
+    public void setParallelThreshold(int threshold)
+    {
+        if (threshold < 0)
+        {
+            throw new IllegalArgumentException("The threshold may not be negative!");
+        }
+        this.parallelThreshold = threshold;
+    }
+
+    /**
+     * Returns the size from which collections are converted in parallel
+     *
+     * @return the minimum size or 0 if disabled
+     */
+    public int getParallelThreshold()
+    {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the pool converting in parallel
+     *
+     * @param pool the pool or null to use the common pool
+     */
+    public void setPool(ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
     public static Collection getCollectionFor(ParameterizedType ptype) throws IllegalAccessException, InstantiationException
     {
         Class collectionType = (Class)ptype.getRawType();
@@ -61,13 +103,31 @@ public class CollectionConverter implements GenericConverter<Collection>
         return new HashSet();
     }
 
-    public ListNode toNode(Collection collection, ConverterManager manager) throws ConversionException
+    public ListNode toNode(Collection collection, final ConverterManager manager) throws ConversionException
     {
         ListNode result = ListNode.emptyList();
         if (collection == null || collection.isEmpty())
         {
             return result;
         }
+        if (ParallelConversion.isParallel(collection.size(), this.parallelThreshold, manager))
+        {
+            final Object[] values = collection.toArray();
+            final Node[] nodes = new Node[values.length];
+            ParallelConversion.run(this.pool, values.length, new ParallelConversion.Step()
+            {
+                @Override
+                public void convert(int index) throws ConversionException
+                {
+                    nodes[index] = manager.convertToNode(values[index]);
+                }
+            });
+            for (Node node : nodes)
+            {
+                result.addNode(node);
+            }
+            return result;
+        }
         for (Object value : collection)
         {
             result.addNode(manager.convertToNode(value));
@@ -100,9 +160,28 @@ public class CollectionConverter implements GenericConverter<Collection>
     }
 
     @SuppressWarnings("unchecked")
-    private Collection fillCollection(Collection result, ParameterizedType pType, ListNode listNode, ConverterManager manager) throws ConversionException
+    private Collection fillCollection(Collection result, ParameterizedType pType, ListNode listNode, final ConverterManager manager) throws ConversionException
     {
-        Type subType = pType.getActualTypeArguments()[0];
+        final Type subType = pType.getActualTypeArguments()[0];
+
+        final List<Node> nodes = listNode.getValue();
+        if (ParallelConversion.isParallel(nodes.size(), this.parallelThreshold, manager))
+        {
+            final Object[] values = new Object[nodes.size()];
+            ParallelConversion.run(this.pool, values.length, new ParallelConversion.Step()
+            {
+                @Override
+                public void convert(int index) throws ConversionException
+                {
+                    values[index] = manager.convertFromNode(nodes.get(index), subType);
+                }
+            });
+            for (Object value : values)
+            {
+                result.add(value);
+            }
+            return result;
+        }
 
         for (Node node : listNode.getValue())
         {
@@ -29,9 +29,11 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.cubeengine.converter.ConversionException;
 import org.cubeengine.converter.ConverterManager;
+import org.cubeengine.converter.converter.ThreadSafeConverter;
 import org.cubeengine.converter.node.MapNode;
 import org.cubeengine.converter.node.Node;
 import org.cubeengine.converter.node.StringNode;
@@ -39,8 +41,47 @@ import org.cubeengine.converter.node.StringNode;
 /**
  * Converts MapNode to Map and vice versa
  */
-public class MapConverter implements GenericConverter<Map>
+public class MapConverter implements GenericConverter<Map>, ThreadSafeConverter
 {
+    private volatile int parallelThreshold = 0;
+    private volatile ForkJoinPool pool = null;
+
+    /**
+     * Sets the size from which maps are converted in parallel
+     * <p>Only if every Converter of the ConverterManager is a {@link ThreadSafeConverter} the entries get split
+     * into fork/join tasks. The order of the converted entries is kept.
+     *
+     * @param threshold the minimum size or 0 to always convert on the calling thread
+     */
+    public void setParallelThreshold(int threshold)
+    {
+        if (threshold < 0)
+        {
+            throw new IllegalArgumentException("The threshold may not be negative!");
+        }
+        this.parallelThreshold = threshold;
+    }
+
+    /**
+     * Returns the size from which maps are converted in parallel
+     *
+     * @return the minimum size or 0 if disabled
+     */
+    public int getParallelThreshold()
+    {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the pool converting in parallel
+     *
+     * @param pool the pool or null to use the common pool
+     */
+    public void setPool(ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
     /**
      * Returns a new map of given {@link ParameterizedType}
      *
@@ -63,9 +104,9 @@ public class MapConverter implements GenericConverter<Map>
         }
     }
 
-    public Node toNode(Map map, ConverterManager manager) throws ConversionException
+    public Node toNode(Map map, final ConverterManager manager) throws ConversionException
     {
-        MapNode result = MapNode.emptyMap();
+        MapNode result = manager.newMapNode();
         if (map == null || map.isEmpty())
         {
             return result;
@@ -73,6 +114,26 @@ public class MapConverter implements GenericConverter<Map>
 
         @SuppressWarnings("unchecked")
         Set<Entry> entrySet = map.entrySet();
+        if (ParallelConversion.isParallel(entrySet.size(), this.parallelThreshold, manager))
+        {
+            final Entry[] entries = entrySet.toArray(new Entry[entrySet.size()]);
+            final String[] keys = new String[entries.length];
+            final Node[] values = new Node[entries.length];
+            ParallelConversion.run(this.pool, entries.length, new ParallelConversion.Step()
+            {
+                @Override
+                public void convert(int index) throws ConversionException
+                {
+                    keys[index] = manager.convertToNode(entries[index].getKey()).asText();
+                    values[index] = manager.convertToNode(entries[index].getValue());
+                }
+            });
+            for (int i = 0; i < entries.length; i++)
+            {
+                result.set(keys[i], values[i]);
+            }
+            return result;
+        }
         for (Entry entry : entrySet)
         {
             Node keyNode = manager.convertToNode(entry.getKey());
@@ -107,10 +168,39 @@ public class MapConverter implements GenericConverter<Map>
 
     @SuppressWarnings("unchecked")
     private Map fillMap(Map result, ParameterizedType pType, MapNode mapNode,
-                        ConverterManager manager) throws ConversionException
+                        final ConverterManager manager) throws ConversionException
     {
-        Type keyType = pType.getActualTypeArguments()[0];
-        Type valType = pType.getActualTypeArguments()[1];
+        final Type keyType = pType.getActualTypeArguments()[0];
+        final Type valType = pType.getActualTypeArguments()[1];
+
+        if (ParallelConversion.isParallel(mapNode.size(), this.parallelThreshold, manager))
+        {
+            final String[] originalKeys = new String[mapNode.size()];
+            final Node[] nodes = new Node[originalKeys.length];
+            int i = 0;
+            for (Entry<String, Node> entry : mapNode.getMappedNodes().entrySet())
+            {
+                originalKeys[i] = mapNode.getOriginalKey(entry.getKey());
+                nodes[i++] = entry.getValue();
+            }
+            final Object[] keys = new Object[originalKeys.length];
+            final Object[] values = new Object[originalKeys.length];
+            ParallelConversion.run(this.pool, originalKeys.length, new ParallelConversion.Step()
+            {
+                @Override
+                public void convert(int index) throws ConversionException
+                {
+                    // preserve Casing in Key
+                    keys[index] = manager.convertFromNode(new StringNode(originalKeys[index]), keyType);
+                    values[index] = manager.convertFromNode(nodes[index], valType);
+                }
+            });
+            for (i = 0; i < keys.length; i++)
+            {
+                result.put(keys[i], values[i]);
+            }
+            return result;
+        }
 
         for (Entry<String, Node> entry : mapNode.getMappedNodes().entrySet())
         {
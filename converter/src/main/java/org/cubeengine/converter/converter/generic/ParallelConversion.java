@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.converter.generic;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.cubeengine.converter.ConversionException;
+import org.cubeengine.converter.ConverterManager;
+
+/**
+ * Converts the elements of a large container in fork/join tasks
+ * <p>Every element is converted into its own slot, so the caller can assemble the results in the original order.
+ */
+final class ParallelConversion extends RecursiveAction
+{
+    private static final int MIN_BATCH_SIZE = 16;
+
+    /**
+     * Converts a single element
+     */
+    interface Step
+    {
+        void convert(int index) throws ConversionException;
+    }
+
+    private final Step step;
+    private final int from;
+    private final int to;
+    private final int batchSize;
+
+    private ParallelConversion(Step step, int from, int to, int batchSize)
+    {
+        this.step = step;
+        this.from = from;
+        this.to = to;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns whether a container of given size is converted in parallel
+     *
+     * @param size      the size of the container
+     * @param threshold the minimum size or 0 if disabled
+     * @param manager   the ConverterManager converting the elements
+     *
+     * @return true if the container is converted in parallel
+     */
+    static boolean isParallel(int size, int threshold, ConverterManager manager)
+    {
+        return threshold > 0 && size >= threshold && manager.isThreadSafe();
+    }
+
+    /**
+     * Runs the Step for every index and waits for all of them
+     *
+     * @param pool the pool or null for the common pool
+     * @param size the amount of elements
+     * @param step the Step
+     *
+     * @throws ConversionException the first exception thrown by a Step
+     */
+    static void run(ForkJoinPool pool, int size, Step step) throws ConversionException
+    {
+        if (pool == null)
+        {
+            pool = ForkJoinPool.commonPool();
+        }
+        int batchSize = Math.max(MIN_BATCH_SIZE, size / (pool.getParallelism() * 4));
+        try
+        {
+            pool.invoke(new ParallelConversion(step, 0, size, batchSize));
+        }
+        catch (RuntimeException e)
+        {
+            for (Throwable cause = e; cause != null; cause = cause.getCause())
+            {
+                if (cause instanceof ConversionException)
+                {
+                    throw (ConversionException)cause;
+                }
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    protected void compute()
+    {
+        if (this.to - this.from <= this.batchSize)
+        {
+            for (int i = this.from; i < this.to; i++)
+            {
+                try
+                {
+                    this.step.convert(i);
+                }
+                catch (ConversionException e)
+                {
+                    throw new CompletionException(e);
+                }
+            }
+            return;
+        }
+        int middle = (this.from + this.to) >>> 1;
+        invokeAll(new ParallelConversion(this.step, this.from, middle, this.batchSize),
+                  new ParallelConversion(this.step, middle, this.to, this.batchSize));
+    }
+}
@@ -27,6 +27,8 @@ package org.cubeengine.converter.node;
  */
 public class BooleanNode extends ValueNode<Boolean>
 {
+    private final boolean value;
+
     /**
      * Creates a BooleanNode
      *
@@ -34,7 +36,29 @@ public class BooleanNode extends ValueNode<Boolean>
      */
     public BooleanNode(boolean value)
     {
-        super(value);
+        this.value = value;
+    }
+
+    @Override
+    public Boolean getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * Returns the value without boxing it
+     *
+     * @return the value
+     */
+    public boolean getBoolean()
+    {
+        return this.value;
+    }
+
+    @Override
+    public String asText()
+    {
+        return String.valueOf(this.value);
     }
 
     /**
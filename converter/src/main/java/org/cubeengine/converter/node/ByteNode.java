@@ -27,6 +27,8 @@ package org.cubeengine.converter.node;
  */
 public class ByteNode extends ValueNode<Byte>
 {
+    private final byte value;
+
     /**
      * Creates a ByteNode
      *
@@ -34,6 +36,28 @@ public class ByteNode extends ValueNode<Byte>
      */
     public ByteNode(byte value)
     {
-        super(value);
+        this.value = value;
+    }
+
+    @Override
+    public Byte getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * Returns the value without boxing it
+     *
+     * @return the value
+     */
+    public byte getByte()
+    {
+        return this.value;
+    }
+
+    @Override
+    public String asText()
+    {
+        return String.valueOf(this.value);
     }
 }
@@ -27,6 +27,8 @@ package org.cubeengine.converter.node;
  */
 public class CharNode extends ValueNode<Character>
 {
+    private final char value;
+
     /**
      * Creates a CharNode
      *
@@ -34,6 +36,28 @@ public class CharNode extends ValueNode<Character>
      */
     public CharNode(char value)
     {
-        super(value);
+        this.value = value;
+    }
+
+    @Override
+    public Character getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * Returns the value without boxing it
+     *
+     * @return the value
+     */
+    public char getChar()
+    {
+        return this.value;
+    }
+
+    @Override
+    public String asText()
+    {
+        return String.valueOf(this.value);
     }
 }
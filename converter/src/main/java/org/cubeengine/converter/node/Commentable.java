@@ -24,25 +24,45 @@ package org.cubeengine.converter.node;
 
 public abstract class Commentable
 {
-    private String[] comments = null;
+    private Comments comments = null;
 
     /**
-     * Gets the comments of this node
+     * Gets a copy of the comments of this node
      *
      * @return the comments or null
      */
     public String[] getComments()
     {
-        return this.comments == null ? null : this.comments.clone();
+        return this.comments == null ? null : this.comments.toArray();
     }
 
     /**
-     * Sets the comments of this node
+     * Sets a copy of the comments of this node
      *
      * @param comments the comments to set
      */
     public void setComments(String[] comments)
     {
-        this.comments = comments == null ? null : comments.clone();
+        this.comments = comments == null ? null : Comments.of(comments);
+    }
+
+    /**
+     * Gets the comments of this node without copying them
+     *
+     * @return the comments or null
+     */
+    public Comments getSharedComments()
+    {
+        return this.comments;
+    }
+
+    /**
+     * Sets the comments of this node without copying them
+     *
+     * @param comments the comments to set
+     */
+    public void setSharedComments(Comments comments)
+    {
+        this.comments = comments;
     }
 }
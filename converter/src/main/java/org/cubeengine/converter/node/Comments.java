@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import java.util.Arrays;
+
+/**
+ * The immutable comment lines of a Node
+ * <p>Comments never change, so one instance can be shared by any number of Nodes and is passed by reference.
+ */
+public final class Comments
+{
+    /**
+     * No comment lines
+     */
+    public static final Comments EMPTY = new Comments(new String[0]);
+
+    private final String[] lines;
+
+    private Comments(String[] lines)
+    {
+        this.lines = lines;
+    }
+
+    /**
+     * Returns the Comments of given lines
+     *
+     * @param lines the comment lines
+     *
+     * @return the Comments or {@link #EMPTY} if there are no lines
+     */
+    public static Comments of(String... lines)
+    {
+        if (lines == null || lines.length == 0)
+        {
+            return EMPTY;
+        }
+        return new Comments(lines.clone());
+    }
+
+    /**
+     * Returns the amount of lines
+     *
+     * @return the size
+     */
+    public int size()
+    {
+        return this.lines.length;
+    }
+
+    /**
+     * Returns whether there are no lines
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty()
+    {
+        return this.lines.length == 0;
+    }
+
+    /**
+     * Returns the line at given position
+     *
+     * @param i the position
+     *
+     * @return the line
+     */
+    public String get(int i)
+    {
+        return this.lines[i];
+    }
+
+    /**
+     * Returns a copy of the lines
+     *
+     * @return the lines
+     */
+    public String[] toArray()
+    {
+        return this.lines.clone();
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        return this == o || o instanceof Comments && Arrays.equals(this.lines, ((Comments)o).lines);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode(this.lines);
+    }
+
+    @Override
+    public String toString()
+    {
+        return Arrays.toString(this.lines);
+    }
+}
@@ -41,21 +41,23 @@ public abstract class ContainerNode<V> extends Node<V>
      */
     public Node set(Path path, Node node)
     {
-        if (path.isBasePath())
-        {
-            return this.set(path.getFirst(), node);
-        }
-        Node child = this.get(path.getFirst());
-        if (child == null)
-        {
-            child = MapNode.emptyMap();
-            this.set(path.getFirst(), child);
-        }
-        if (child instanceof ContainerNode)
+        ContainerNode container = this;
+        int last = path.getSize() - 1;
+        for (int i = 0; i < last; i++)
         {
-            return ((ContainerNode)child).set(path.subPath(), node);
+            Node child = container.get(path, i);
+            if (child == null)
+            {
+                child = container.newMapNode();
+                container.set(path, i, child);
+            }
+            if (!(child instanceof ContainerNode))
+            {
+                throw new InvalidPathException("Invalid Path: " + path.asString("/"));
+            }
+            container = (ContainerNode)child;
         }
-        throw new InvalidPathException("Invalid Path: " + path.asString("/"));
+        return container.set(path, last, node);
     }
 
     /**
@@ -69,17 +71,7 @@ public abstract class ContainerNode<V> extends Node<V>
      */
     public Node get(Path path)
     {
-        Node child = this.get(path.getFirst());
-
-        if (child == null || path.isBasePath())
-        {
-            return child;
-        }
-        if (child instanceof ContainerNode)
-        {
-            return ((ContainerNode)child).get(path.subPath());
-        }
-        throw new InvalidPathException("Invalid Path: " + path.asString("/"));
+        return this.follow(path, path.getSize());
     }
 
     /**
@@ -91,23 +83,113 @@ public abstract class ContainerNode<V> extends Node<V>
      */
     public Node remove(Path path)
     {
-        if (path.isBasePath())
+        ContainerNode parent = this.getParent(path);
+        if (parent == null)
         {
-            return this.remove(path.getFirst());
+            return null;
         }
+        return parent.remove(path, path.getSize() - 1);
+    }
 
-        Node child = this.get(path.getFirst());
-        if (child == null)
+    /**
+     * Returns the ContainerNode holding the last part of the path
+     *
+     * @return the ContainerNode or null if not found
+     */
+    private ContainerNode getParent(Path path)
+    {
+        if (path.isBasePath())
+        {
+            return this;
+        }
+        Node parent = this.follow(path, path.getSize() - 1);
+        if (parent == null)
         {
             return null;
         }
-        if (child instanceof ContainerNode)
+        if (parent instanceof ContainerNode)
         {
-            return ((ContainerNode)child).remove(path.subPath());
+            return (ContainerNode)parent;
         }
         throw new InvalidPathException("Invalid Path: " + path.asString("/"));
     }
 
+    /**
+     * Gets the Node for the first parts of the path
+     *
+     * @param path  the path
+     * @param depth the amount of parts to follow
+     *
+     * @return the Node or null if not found
+     */
+    private Node follow(Path path, int depth)
+    {
+        ContainerNode container = this;
+        for (int i = 0; ; i++)
+        {
+            Node child = container.get(path, i);
+            if (child == null || i == depth - 1)
+            {
+                return child;
+            }
+            if (!(child instanceof ContainerNode))
+            {
+                throw new InvalidPathException("Invalid Path: " + path.asString("/"));
+            }
+            container = (ContainerNode)child;
+        }
+    }
+
+    /**
+     * Sets the Node for the part of the path at given position
+     *
+     * @param path the path
+     * @param part the position of the part
+     * @param node the Node to set
+     *
+     * @return the previously mapped Node or null if not set
+     */
+    protected Node set(Path path, int part, Node node)
+    {
+        return this.set(path.getPart(part), node);
+    }
+
+    /**
+     * Returns the Node for the part of the path at given position
+     *
+     * @param path the path
+     * @param part the position of the part
+     *
+     * @return the matched Node or null
+     */
+    protected Node get(Path path, int part)
+    {
+        return this.get(path.getPart(part));
+    }
+
+    /**
+     * Removes the Node for the part of the path at given position
+     *
+     * @param path the path
+     * @param part the position of the part
+     *
+     * @return the previously mapped Node or null if not set
+     */
+    protected Node remove(Path path, int part)
+    {
+        return this.remove(path.getPart(part));
+    }
+
+    /**
+     * Creates the MapNode to put at missing parts of a path when setting a Node
+     *
+     * @return the new MapNode
+     */
+    protected MapNode newMapNode()
+    {
+        return MapNode.emptyMap();
+    }
+
     /**
      * Sets this Node for given key
      * <p>The key will be lowercased!
@@ -27,6 +27,8 @@ package org.cubeengine.converter.node;
  */
 public class DoubleNode extends ValueNode<Double>
 {
+    private final double value;
+
     /**
      * Creates a DoubleNode
      *
@@ -34,6 +36,28 @@ public class DoubleNode extends ValueNode<Double>
      */
     public DoubleNode(double value)
     {
-        super(value);
+        this.value = value;
+    }
+
+    @Override
+    public Double getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * Returns the value without boxing it
+     *
+     * @return the value
+     */
+    public double getDouble()
+    {
+        return this.value;
+    }
+
+    @Override
+    public String asText()
+    {
+        return String.valueOf(this.value);
     }
 }
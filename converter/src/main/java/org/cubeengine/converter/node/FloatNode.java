@@ -27,6 +27,8 @@ package org.cubeengine.converter.node;
  */
 public class FloatNode extends ValueNode<Float>
 {
+    private final float value;
+
     /**
      * Creates A FloatNode
      *
@@ -34,6 +36,28 @@ public class FloatNode extends ValueNode<Float>
      */
     public FloatNode(float value)
     {
-        super(value);
+        this.value = value;
+    }
+
+    @Override
+    public Float getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * Returns the value without boxing it
+     *
+     * @return the value
+     */
+    public float getFloat()
+    {
+        return this.value;
+    }
+
+    @Override
+    public String asText()
+    {
+        return String.valueOf(this.value);
     }
 }
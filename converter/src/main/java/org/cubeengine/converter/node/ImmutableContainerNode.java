@@ -0,0 +1,180 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import org.cubeengine.converter.InvalidPathException;
+
+/**
+ * An immutable Node that can be a parent of other immutable Nodes
+ *
+ * @param <T> the type of this Node
+ */
+public abstract class ImmutableContainerNode<T extends ImmutableContainerNode<T>> extends ImmutableNode
+{
+    ImmutableContainerNode(Comments comments)
+    {
+        super(comments);
+    }
+
+    /**
+     * Gets the Node for given path or null if not found
+     *
+     * @param path the path
+     *
+     * @return the Node at given path
+     *
+     * @throws InvalidPathException when a node on the path is not a container
+     */
+    public final ImmutableNode get(Path path)
+    {
+        ImmutableContainerNode<?> container = this;
+        for (int i = 0; ; i++)
+        {
+            ImmutableNode child = container.get(path, i);
+            if (child == null || i == path.getSize() - 1)
+            {
+                return child;
+            }
+            if (!(child instanceof ImmutableContainerNode))
+            {
+                throw new InvalidPathException("Invalid Path: " + path.asString("/"));
+            }
+            container = (ImmutableContainerNode<?>)child;
+        }
+    }
+
+    /**
+     * Returns a Node with the Node set at given path
+     * <p>Missing Nodes on the path are created as {@link ImmutableMapNode}. Only the Nodes on the path are copied.
+     *
+     * @param path the path
+     * @param node the Node to set
+     *
+     * @return the new Node
+     *
+     * @throws InvalidPathException when a node on the path is not a container
+     */
+    public final T with(Path path, ImmutableNode node)
+    {
+        return this.with(path, 0, node);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T with(Path path, int part, ImmutableNode node)
+    {
+        if (part == path.getSize() - 1)
+        {
+            return this.withChild(path, part, node);
+        }
+        ImmutableNode child = this.get(path, part);
+        if (child == null)
+        {
+            child = this.newMapNode();
+        }
+        if (!(child instanceof ImmutableContainerNode))
+        {
+            throw new InvalidPathException("Invalid Path: " + path.asString("/"));
+        }
+        ImmutableNode changed = ((ImmutableContainerNode)child).with(path, part + 1, node);
+        if (changed == child)
+        {
+            return (T)this;
+        }
+        return this.withChild(path, part, changed);
+    }
+
+    /**
+     * Returns a Node without the Node at given path
+     *
+     * @param path the path
+     *
+     * @return the new Node or this Node if nothing is mapped at the path
+     *
+     * @throws InvalidPathException when a node on the path is not a container
+     */
+    public final T without(Path path)
+    {
+        return this.without(path, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T without(Path path, int part)
+    {
+        if (part == path.getSize() - 1)
+        {
+            return this.withoutChild(path, part);
+        }
+        ImmutableNode child = this.get(path, part);
+        if (child == null)
+        {
+            return (T)this;
+        }
+        if (!(child instanceof ImmutableContainerNode))
+        {
+            throw new InvalidPathException("Invalid Path: " + path.asString("/"));
+        }
+        ImmutableNode changed = ((ImmutableContainerNode)child).without(path, part + 1);
+        if (changed == child)
+        {
+            return (T)this;
+        }
+        return this.withChild(path, part, changed);
+    }
+
+    ImmutableMapNode newMapNode()
+    {
+        return ImmutableMapNode.EMPTY;
+    }
+
+    /**
+     * Returns the direct child for the part of the path at given position
+     */
+    abstract ImmutableNode get(Path path, int part);
+
+    /**
+     * Returns a copy with the direct child for the part of the path at given position set
+     */
+    abstract T withChild(Path path, int part, ImmutableNode node);
+
+    /**
+     * Returns a copy without the direct child for the part of the path at given position
+     */
+    abstract T withoutChild(Path path, int part);
+
+    /**
+     * Returns the amount of children
+     *
+     * @return the size
+     */
+    public abstract int size();
+
+    /**
+     * Returns whether this Node has no children
+     *
+     * @return true if empty
+     */
+    public final boolean isEmpty()
+    {
+        return this.size() == 0;
+    }
+}
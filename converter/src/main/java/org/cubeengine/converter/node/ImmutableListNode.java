@@ -0,0 +1,235 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import java.util.Arrays;
+
+/**
+ * An immutable ListNode
+ * <p>Updates copy the list of this Node only, all child Nodes are shared with the new Node.
+ */
+public final class ImmutableListNode extends ImmutableContainerNode<ImmutableListNode>
+{
+    /**
+     * An empty list
+     */
+    public static final ImmutableListNode EMPTY = new ImmutableListNode(new ImmutableNode[0], null);
+
+    private final ImmutableNode[] nodes;
+    private int hash;
+
+    ImmutableListNode(ImmutableNode[] nodes, Comments comments)
+    {
+        super(comments);
+        this.nodes = nodes;
+    }
+
+    /**
+     * Returns the Node at given index
+     *
+     * @param index the index
+     *
+     * @return the Node
+     *
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    public ImmutableNode get(int index)
+    {
+        this.checkIndex(index, this.nodes.length);
+        return this.nodes[index];
+    }
+
+    /**
+     * Returns a list with the Node at given index replaced
+     *
+     * @param index the index
+     * @param node  the Node
+     *
+     * @return the new list
+     *
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    public ImmutableListNode with(int index, ImmutableNode node)
+    {
+        this.checkIndex(index, this.nodes.length);
+        if (this.nodes[index] == node)
+        {
+            return this;
+        }
+        ImmutableNode[] nodes = this.nodes.clone();
+        nodes[index] = node;
+        return new ImmutableListNode(nodes, this.comments());
+    }
+
+    /**
+     * Returns a list with the Node inserted at given index
+     *
+     * @param index the index
+     * @param node  the Node
+     *
+     * @return the new list
+     *
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    public ImmutableListNode plus(int index, ImmutableNode node)
+    {
+        this.checkIndex(index, this.nodes.length + 1);
+        ImmutableNode[] nodes = new ImmutableNode[this.nodes.length + 1];
+        System.arraycopy(this.nodes, 0, nodes, 0, index);
+        nodes[index] = node;
+        System.arraycopy(this.nodes, index, nodes, index + 1, this.nodes.length - index);
+        return new ImmutableListNode(nodes, this.comments());
+    }
+
+    /**
+     * Returns a list with the Node appended
+     *
+     * @param node the Node
+     *
+     * @return the new list
+     */
+    public ImmutableListNode plus(ImmutableNode node)
+    {
+        return this.plus(this.nodes.length, node);
+    }
+
+    /**
+     * Returns a list without the Node at given index
+     *
+     * @param index the index
+     *
+     * @return the new list
+     *
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    public ImmutableListNode without(int index)
+    {
+        this.checkIndex(index, this.nodes.length);
+        ImmutableNode[] nodes = new ImmutableNode[this.nodes.length - 1];
+        System.arraycopy(this.nodes, 0, nodes, 0, index);
+        System.arraycopy(this.nodes, index + 1, nodes, index, nodes.length - index);
+        return new ImmutableListNode(nodes, this.comments());
+    }
+
+    private void checkIndex(int index, int size)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IllegalArgumentException("Out of Range! " + index);
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        return this.nodes.length;
+    }
+
+    @Override
+    public ImmutableListNode withComments(String[] comments)
+    {
+        return this.withComments(comments == null ? null : Comments.of(comments));
+    }
+
+    @Override
+    public ImmutableListNode withComments(Comments comments)
+    {
+        return new ImmutableListNode(this.nodes, comments);
+    }
+
+    @Override
+    public ListNode toMutable()
+    {
+        ListNode node = ListNode.emptyList();
+        for (ImmutableNode child : this.nodes)
+        {
+            node.addNode(child.toMutable());
+        }
+        return this.copyComments(node);
+    }
+
+    private static int getIndex(Path path, int part)
+    {
+        int index = path.getIndex(part);
+        if (index < 0)
+        {
+            throw new IllegalArgumentException("Could not parse ListPath: " + path.getPart(part));
+        }
+        return index;
+    }
+
+    @Override
+    ImmutableNode get(Path path, int part)
+    {
+        return this.get(getIndex(path, part));
+    }
+
+    @Override
+    ImmutableListNode withChild(Path path, int part, ImmutableNode node)
+    {
+        return this.with(getIndex(path, part), node);
+    }
+
+    @Override
+    ImmutableListNode withoutChild(Path path, int part)
+    {
+        return this.without(getIndex(path, part));
+    }
+
+    /**
+     * Returns whether the other list has equal Nodes in the same order
+     * <p>Comments are not compared
+     */
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof ImmutableListNode))
+        {
+            return false;
+        }
+        ImmutableListNode other = (ImmutableListNode)o;
+        return this.hashCode() == other.hashCode() && Arrays.equals(this.nodes, other.nodes);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int h = this.hash;
+        if (h == 0)
+        {
+            h = Arrays.hashCode(this.nodes);
+            this.hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString()
+    {
+        return Arrays.toString(this.nodes);
+    }
+}
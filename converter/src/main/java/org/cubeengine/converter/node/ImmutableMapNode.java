@@ -0,0 +1,424 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import java.util.Arrays;
+
+/**
+ * An immutable MapNode
+ * <p>Keys are normalized like the keys of a {@link MapNode} and kept in insertion order. Updates copy the entries of
+ * this Node only, all child Nodes are shared with the new Node.
+ */
+public final class ImmutableMapNode extends ImmutableContainerNode<ImmutableMapNode>
+{
+    private static final String[] NO_KEYS = new String[0];
+    private static final ImmutableNode[] NO_NODES = new ImmutableNode[0];
+    private static final int INDEX_THRESHOLD = 8;
+
+    /**
+     * An empty map
+     */
+    public static final ImmutableMapNode EMPTY = new ImmutableMapNode(false, NO_KEYS, NO_KEYS, NO_NODES, null);
+    /**
+     * An empty map with case-sensitive keys
+     */
+    public static final ImmutableMapNode CASE_SENSITIVE_EMPTY = new ImmutableMapNode(true, NO_KEYS, NO_KEYS, NO_NODES, null);
+
+    private final boolean caseSensitive;
+    private final String[] keys;
+    private final String[] originalKeys;
+    private final ImmutableNode[] nodes;
+    /**
+     * Open addressing table of entry positions + 1 or null for small maps
+     */
+    private final int[] index;
+    private int hash;
+
+    private ImmutableMapNode(boolean caseSensitive, String[] keys, String[] originalKeys, ImmutableNode[] nodes,
+                             Comments comments)
+    {
+        super(comments);
+        this.caseSensitive = caseSensitive;
+        this.keys = keys;
+        this.originalKeys = originalKeys;
+        this.nodes = nodes;
+        this.index = keys.length > INDEX_THRESHOLD ? buildIndex(keys) : null;
+    }
+
+    private static int[] buildIndex(String[] keys)
+    {
+        int[] index = new int[Integer.highestOneBit(keys.length * 4 - 1)];
+        int mask = index.length - 1;
+        for (int i = 0; i < keys.length; i++)
+        {
+            int slot = hash(keys[i]) & mask;
+            while (index[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+        return index;
+    }
+
+    private static int hash(String key)
+    {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private String normalize(String key)
+    {
+        return this.caseSensitive ? key : MapNode.normalizeKey(key);
+    }
+
+    private int indexOf(String normalizedKey)
+    {
+        if (this.index == null)
+        {
+            for (int i = 0; i < this.keys.length; i++)
+            {
+                if (this.keys[i].equals(normalizedKey))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = this.index.length - 1;
+        for (int slot = hash(normalizedKey) & mask; ; slot = (slot + 1) & mask)
+        {
+            int pos = this.index[slot] - 1;
+            if (pos < 0)
+            {
+                return -1;
+            }
+            if (this.keys[pos].equals(normalizedKey))
+            {
+                return pos;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the keys of this Node are case-sensitive
+     *
+     * @return true if keys are not trimmed and lowercased
+     */
+    public boolean isCaseSensitive()
+    {
+        return this.caseSensitive;
+    }
+
+    /**
+     * Returns the Node for given key
+     *
+     * @param key the key
+     *
+     * @return the Node or null
+     */
+    public ImmutableNode get(String key)
+    {
+        int pos = this.indexOf(this.normalize(key));
+        return pos < 0 ? null : this.nodes[pos];
+    }
+
+    /**
+     * Returns whether a Node is mapped to given key
+     *
+     * @param key the key
+     *
+     * @return true if mapped
+     */
+    public boolean containsKey(String key)
+    {
+        return this.indexOf(this.normalize(key)) >= 0;
+    }
+
+    /**
+     * Returns the original key for given key
+     *
+     * @param key the key
+     *
+     * @return the key as it was set or null if not mapped
+     */
+    public String getOriginalKey(String key)
+    {
+        int pos = this.indexOf(this.normalize(key));
+        return pos < 0 ? null : this.originalKeys[pos];
+    }
+
+    /**
+     * Returns a map with the Node mapped to given key
+     *
+     * @param key  the key
+     * @param node the Node
+     *
+     * @return the new map or this map if the Node was mapped already
+     */
+    public ImmutableMapNode with(String key, ImmutableNode node)
+    {
+        if (node == null)
+        {
+            throw new IllegalArgumentException("The node may not be null!");
+        }
+        String normalized = this.normalize(key);
+        if (normalized.isEmpty())
+        {
+            throw new IllegalArgumentException("The key for the following node is empty!" + node.toString());
+        }
+        int pos = this.indexOf(normalized);
+        if (pos >= 0)
+        {
+            if (this.nodes[pos] == node && this.originalKeys[pos].equals(key))
+            {
+                return this;
+            }
+            String[] originalKeys = this.originalKeys.clone();
+            ImmutableNode[] nodes = this.nodes.clone();
+            originalKeys[pos] = key;
+            nodes[pos] = node;
+            return new ImmutableMapNode(this.caseSensitive, this.keys, originalKeys, nodes, this.comments());
+        }
+        int size = this.keys.length;
+        String[] keys = Arrays.copyOf(this.keys, size + 1);
+        String[] originalKeys = Arrays.copyOf(this.originalKeys, size + 1);
+        ImmutableNode[] nodes = Arrays.copyOf(this.nodes, size + 1);
+        keys[size] = normalized;
+        originalKeys[size] = key;
+        nodes[size] = node;
+        return new ImmutableMapNode(this.caseSensitive, keys, originalKeys, nodes, this.comments());
+    }
+
+    /**
+     * Returns a map without the Node mapped to given key
+     *
+     * @param key the key
+     *
+     * @return the new map or this map if nothing was mapped
+     */
+    public ImmutableMapNode without(String key)
+    {
+        int pos = this.indexOf(this.normalize(key));
+        if (pos < 0)
+        {
+            return this;
+        }
+        return new ImmutableMapNode(this.caseSensitive, remove(this.keys, pos), remove(this.originalKeys, pos),
+                                    remove(this.nodes, pos), this.comments());
+    }
+
+    private static <E> E[] remove(E[] array, int pos)
+    {
+        E[] removed = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, pos + 1, removed, pos, array.length - pos - 1);
+        return removed;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.keys.length;
+    }
+
+    /**
+     * Returns the normalized key at given position
+     *
+     * @param i the position
+     *
+     * @return the key
+     */
+    public String getKey(int i)
+    {
+        return this.keys[i];
+    }
+
+    /**
+     * Returns the original key at given position
+     *
+     * @param i the position
+     *
+     * @return the key as it was set
+     */
+    public String getOriginalKey(int i)
+    {
+        return this.originalKeys[i];
+    }
+
+    /**
+     * Returns the Node at given position
+     *
+     * @param i the position
+     *
+     * @return the Node
+     */
+    public ImmutableNode getNode(int i)
+    {
+        return this.nodes[i];
+    }
+
+    @Override
+    public ImmutableMapNode withComments(String[] comments)
+    {
+        return this.withComments(comments == null ? null : Comments.of(comments));
+    }
+
+    @Override
+    public ImmutableMapNode withComments(Comments comments)
+    {
+        return new ImmutableMapNode(this.caseSensitive, this.keys, this.originalKeys, this.nodes, comments);
+    }
+
+    @Override
+    public MapNode toMutable()
+    {
+        MapNode node = new MapNode(this.caseSensitive);
+        for (int i = 0; i < this.keys.length; i++)
+        {
+            node.set(this.originalKeys[i], this.nodes[i].toMutable());
+        }
+        return this.copyComments(node);
+    }
+
+    @Override
+    ImmutableMapNode newMapNode()
+    {
+        return this.caseSensitive ? CASE_SENSITIVE_EMPTY : EMPTY;
+    }
+
+    @Override
+    ImmutableNode get(Path path, int part)
+    {
+        return this.get(path.getPart(part));
+    }
+
+    @Override
+    ImmutableMapNode withChild(Path path, int part, ImmutableNode node)
+    {
+        return this.with(path.getPart(part), node);
+    }
+
+    @Override
+    ImmutableMapNode withoutChild(Path path, int part)
+    {
+        return this.without(path.getPart(part));
+    }
+
+    /**
+     * Returns whether the other map has equal Nodes mapped to the same keys regardless of their order
+     * <p>Comments and original keys are not compared
+     */
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof ImmutableMapNode))
+        {
+            return false;
+        }
+        ImmutableMapNode other = (ImmutableMapNode)o;
+        if (this.keys.length != other.keys.length || this.hashCode() != other.hashCode())
+        {
+            return false;
+        }
+        for (int i = 0; i < this.keys.length; i++)
+        {
+            int pos = other.indexOf(this.keys[i]);
+            if (pos < 0 || !this.nodes[i].equals(other.nodes[pos]))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int h = this.hash;
+        if (h == 0)
+        {
+            for (int i = 0; i < this.keys.length; i++)
+            {
+                h += this.keys[i].hashCode() ^ this.nodes[i].hashCode();
+            }
+            this.hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < this.keys.length; i++)
+        {
+            if (i != 0)
+            {
+                sb.append(", ");
+            }
+            sb.append(this.originalKeys[i]).append('=').append(this.nodes[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Builds an ImmutableMapNode from distinct normalized keys
+     */
+    static final class Builder
+    {
+        private final boolean caseSensitive;
+        private final String[] keys;
+        private final String[] originalKeys;
+        private final ImmutableNode[] nodes;
+        private int size = 0;
+
+        Builder(boolean caseSensitive, int size)
+        {
+            this.caseSensitive = caseSensitive;
+            this.keys = new String[size];
+            this.originalKeys = new String[size];
+            this.nodes = new ImmutableNode[size];
+        }
+
+        void add(String key, String originalKey, ImmutableNode node)
+        {
+            this.keys[this.size] = key;
+            this.originalKeys[this.size] = originalKey == null ? key : originalKey;
+            this.nodes[this.size] = node;
+            this.size++;
+        }
+
+        ImmutableMapNode build(Comments comments)
+        {
+            if (this.size == 0 && comments == null)
+            {
+                return this.caseSensitive ? CASE_SENSITIVE_EMPTY : EMPTY;
+            }
+            return new ImmutableMapNode(this.caseSensitive, this.keys, this.originalKeys, this.nodes, comments);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * An immutable Node
+ * <p>Immutable Nodes never change after creation. Updates return a new Node sharing all unchanged subtrees with the
+ * previous one, so keeping old versions around is cheap and trees can be handed to other threads without copying.
+ * <p>Use {@link #of(Node)} and {@link #toMutable()} to convert from and to the mutable {@link Node}s.
+ */
+public abstract class ImmutableNode
+{
+    private final Comments comments;
+
+    ImmutableNode(Comments comments)
+    {
+        this.comments = comments;
+    }
+
+    /**
+     * Gets a copy of the comments of this node
+     *
+     * @return the comments or null
+     */
+    public final String[] getComments()
+    {
+        return this.comments == null ? null : this.comments.toArray();
+    }
+
+    /**
+     * Gets the comments of this node without copying them
+     *
+     * @return the comments or null
+     */
+    public final Comments getSharedComments()
+    {
+        return this.comments;
+    }
+
+    final Comments comments()
+    {
+        return this.comments;
+    }
+
+    /**
+     * Returns a Node equal to this one with other comments
+     *
+     * @param comments the comments or null
+     *
+     * @return the new Node
+     */
+    public abstract ImmutableNode withComments(String[] comments);
+
+    /**
+     * Returns a Node equal to this one sharing given comments
+     *
+     * @param comments the comments or null
+     *
+     * @return the new Node
+     */
+    public abstract ImmutableNode withComments(Comments comments);
+
+    /**
+     * Creates a new mutable copy of this Node and all its children
+     *
+     * @return the mutable Node
+     */
+    public abstract Node toMutable();
+
+    final <N extends Node> N copyComments(N node)
+    {
+        if (this.comments != null)
+        {
+            node.setSharedComments(this.comments);
+        }
+        return node;
+    }
+
+    /**
+     * Creates an immutable copy of the mutable Node and all its children
+     * <p>Whether a Node was inherited is not copied
+     *
+     * @param node the mutable Node
+     *
+     * @return the immutable Node
+     */
+    @SuppressWarnings("unchecked")
+    public static ImmutableNode of(Node node)
+    {
+        ImmutableNode immutable;
+        if (node instanceof MapNode)
+        {
+            MapNode map = (MapNode)node;
+            ImmutableMapNode.Builder builder = new ImmutableMapNode.Builder(map.isCaseSensitive(), map.size());
+            for (Entry<String, Node> entry : map.getMappedNodes().entrySet())
+            {
+                builder.add(entry.getKey(), map.getOriginalKey(entry.getKey()), of(entry.getValue()));
+            }
+            immutable = builder.build(node.getSharedComments());
+        }
+        else if (node instanceof ListNode)
+        {
+            List<Node> list = ((ListNode)node).getValue();
+            ImmutableNode[] nodes = new ImmutableNode[list.size()];
+            for (int i = 0; i < nodes.length; i++)
+            {
+                nodes[i] = of(list.get(i));
+            }
+            immutable = new ImmutableListNode(nodes, node.getSharedComments());
+        }
+        else if (node == null)
+        {
+            return ImmutableValueNode.NULL;
+        }
+        else if (node instanceof NullNode)
+        {
+            Comments comments = node.getSharedComments();
+            return comments == null ? ImmutableValueNode.NULL : ImmutableValueNode.NULL.withComments(comments);
+        }
+        else
+        {
+            immutable = new ImmutableValueNode(node.getValue(), node.getSharedComments());
+        }
+        return immutable;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+/**
+ * An immutable Node holding a single value
+ * <p>The value is one of the values held by the mutable value Nodes or null for a {@link NullNode}
+ */
+public final class ImmutableValueNode extends ImmutableNode
+{
+    /**
+     * A Node without value
+     */
+    public static final ImmutableValueNode NULL = new ImmutableValueNode(null, null);
+
+    private final Object value;
+
+    ImmutableValueNode(Object value, Comments comments)
+    {
+        super(comments);
+        this.value = value;
+    }
+
+    /**
+     * Returns an immutable Node holding the value
+     *
+     * @param value the value
+     *
+     * @return the Node
+     *
+     * @throws IllegalArgumentException if there is no value Node for values of this type
+     */
+    public static ImmutableValueNode of(Object value)
+    {
+        if (value == null)
+        {
+            return NULL;
+        }
+        ImmutableValueNode node = new ImmutableValueNode(value, null);
+        node.toMutable(); // validate type
+        return node;
+    }
+
+    /**
+     * Returns the value
+     *
+     * @return the value or null
+     */
+    public Object getValue()
+    {
+        return this.value;
+    }
+
+    @Override
+    public ImmutableValueNode withComments(String[] comments)
+    {
+        return this.withComments(comments == null ? null : Comments.of(comments));
+    }
+
+    @Override
+    public ImmutableValueNode withComments(Comments comments)
+    {
+        return new ImmutableValueNode(this.value, comments);
+    }
+
+    @Override
+    public Node toMutable()
+    {
+        Node node;
+        if (this.value == null)
+        {
+            node = NullNode.emptyNode();
+        }
+        else if (this.value instanceof String)
+        {
+            node = new StringNode((String)this.value);
+        }
+        else if (this.value instanceof Integer)
+        {
+            node = new IntNode((Integer)this.value);
+        }
+        else if (this.value instanceof Long)
+        {
+            node = new LongNode((Long)this.value);
+        }
+        else if (this.value instanceof Boolean)
+        {
+            node = new BooleanNode((Boolean)this.value);
+        }
+        else if (this.value instanceof Double)
+        {
+            node = new DoubleNode((Double)this.value);
+        }
+        else if (this.value instanceof Float)
+        {
+            node = new FloatNode((Float)this.value);
+        }
+        else if (this.value instanceof Short)
+        {
+            node = new ShortNode((Short)this.value);
+        }
+        else if (this.value instanceof Byte)
+        {
+            node = new ByteNode((Byte)this.value);
+        }
+        else if (this.value instanceof Character)
+        {
+            node = new CharNode((Character)this.value);
+        }
+        else
+        {
+            throw new IllegalArgumentException("No value Node for " + this.value.getClass().getName());
+        }
+        return this.copyComments(node);
+    }
+
+    /**
+     * Returns whether the other Node holds an equal value
+     * <p>Comments are not compared
+     */
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof ImmutableValueNode))
+        {
+            return false;
+        }
+        Object other = ((ImmutableValueNode)o).value;
+        return this.value == null ? other == null : this.value.equals(other);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.value == null ? 0 : this.value.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.valueOf(this.value);
+    }
+}
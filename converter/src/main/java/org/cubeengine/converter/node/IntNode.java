@@ -27,6 +27,8 @@ package org.cubeengine.converter.node;
  */
 public class IntNode extends ValueNode<Integer>
 {
+    private final int value;
+
     /**
      * Creates an IntNode
      *
@@ -34,6 +36,28 @@ public class IntNode extends ValueNode<Integer>
      */
     public IntNode(int value)
     {
-        super(value);
+        this.value = value;
+    }
+
+    @Override
+    public Integer getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * Returns the value without boxing it
+     *
+     * @return the value
+     */
+    public int getInt()
+    {
+        return this.value;
+    }
+
+    @Override
+    public String asText()
+    {
+        return String.valueOf(this.value);
     }
 }
@@ -0,0 +1,186 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of keys shared by MapNodes
+ * <p>Documents loaded from many files usually share most of their keys. MapNodes created with a pool take their
+ * keys from it, so equal keys of all loaded documents share one String instance. A pool is usually set on the
+ * ConverterManager of a Codec or the default ConverterManager of a Reflector.
+ * <p>Keys are pooled in two generations of half the maximum size each. When the young generation is full it
+ * becomes the old one and the previous old generation is dropped. Keys found in the old generation move back into
+ * the young one, so frequently used keys stay pooled while keys used only once, like UUIDs, get evicted again.
+ * <p>This class is thread-safe.
+ */
+public final class KeyPool
+{
+    private final int maximumSize;
+    private final int generationSize;
+    private volatile ConcurrentMap<String, String> young = new ConcurrentHashMap<String, String>();
+    private volatile ConcurrentMap<String, String> old = new ConcurrentHashMap<String, String>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a KeyPool
+     *
+     * @param maximumSize the maximum amount of pooled keys
+     */
+    public KeyPool(int maximumSize)
+    {
+        if (maximumSize < 0)
+        {
+            throw new IllegalArgumentException("The maximum size may not be negative!");
+        }
+        this.maximumSize = maximumSize;
+        this.generationSize = Math.max(1, maximumSize / 2);
+    }
+
+    /**
+     * Returns the pooled instance equal to the key
+     * <p>The key gets pooled if no equal key is pooled yet
+     *
+     * @param key the key
+     *
+     * @return the pooled key or the key itself
+     */
+    public String intern(String key)
+    {
+        if (this.maximumSize == 0)
+        {
+            this.misses.incrementAndGet();
+            return key;
+        }
+        ConcurrentMap<String, String> young = this.young;
+        String pooled = young.get(key);
+        if (pooled != null)
+        {
+            this.hits.incrementAndGet();
+            return pooled;
+        }
+        pooled = this.old.remove(key);
+        if (pooled != null)
+        {
+            this.hits.incrementAndGet();
+        }
+        else
+        {
+            this.misses.incrementAndGet();
+            pooled = key;
+        }
+        String previous = young.putIfAbsent(pooled, pooled);
+        if (young.size() >= this.generationSize)
+        {
+            this.rotate(young);
+        }
+        return previous == null ? pooled : previous;
+    }
+
+    private synchronized void rotate(ConcurrentMap<String, String> full)
+    {
+        if (this.young == full)
+        {
+            this.old = full;
+            this.young = new ConcurrentHashMap<String, String>();
+        }
+    }
+
+    /**
+     * Returns whether given instance is pooled
+     *
+     * @param key the key
+     *
+     * @return true if the key is the pooled instance
+     */
+    boolean isPooled(String key)
+    {
+        return this.young.get(key) == key || this.old.get(key) == key;
+    }
+
+    /**
+     * Returns the amount of pooled keys
+     *
+     * @return the size
+     */
+    public int size()
+    {
+        return this.young.size() + this.old.size();
+    }
+
+    /**
+     * Returns the maximum amount of pooled keys
+     *
+     * @return the maximum size
+     */
+    public int getMaximumSize()
+    {
+        return this.maximumSize;
+    }
+
+    /**
+     * Returns how often an interned key was pooled already
+     *
+     * @return the hit count
+     */
+    public long getHitCount()
+    {
+        return this.hits.get();
+    }
+
+    /**
+     * Returns how often an interned key was not pooled yet
+     *
+     * @return the miss count
+     */
+    public long getMissCount()
+    {
+        return this.misses.get();
+    }
+
+    /**
+     * Returns the ratio of interned keys that were pooled already
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public double getHitRate()
+    {
+        long hits = this.hits.get();
+        long total = hits + this.misses.get();
+        return total == 0 ? 0 : (double)hits / total;
+    }
+
+    /**
+     * Removes all keys from the pool and resets its statistics
+     */
+    public synchronized void clear()
+    {
+        this.young = new ConcurrentHashMap<String, String>();
+        this.old = new ConcurrentHashMap<String, String>();
+        this.hits.set(0);
+        this.misses.set(0);
+    }
+}
@@ -112,6 +112,55 @@ public class ListNode extends ContainerNode
         }
     }
 
+    @Override
+    protected Node set(Path path, int part, Node node)
+    {
+        try
+        {
+            return this.listedNodes.set(getIndex(path, part), node);
+        }
+        catch (IndexOutOfBoundsException ex)
+        {
+            throw new IllegalArgumentException("Cannot set Node! Out of Range!", ex);
+        }
+    }
+
+    @Override
+    protected Node get(Path path, int part)
+    {
+        try
+        {
+            return this.listedNodes.get(getIndex(path, part));
+        }
+        catch (IndexOutOfBoundsException ex)
+        {
+            throw new IllegalArgumentException("Cannot get Node! Out of Range!", ex);
+        }
+    }
+
+    @Override
+    protected Node remove(Path path, int part)
+    {
+        try
+        {
+            return this.listedNodes.remove(getIndex(path, part));
+        }
+        catch (IndexOutOfBoundsException ex)
+        {
+            throw new IllegalArgumentException("Cannot remove Node! Out of Range!", ex);
+        }
+    }
+
+    private static int getIndex(Path path, int part)
+    {
+        int index = path.getIndex(part);
+        if (index < 0)
+        {
+            throw new IllegalArgumentException("Could not parse ListPath: " + path.getPart(part));
+        }
+        return index;
+    }
+
     @Override
     public boolean isEmpty()
     {
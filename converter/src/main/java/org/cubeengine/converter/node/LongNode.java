@@ -27,6 +27,8 @@ package org.cubeengine.converter.node;
  */
 public class LongNode extends ValueNode<Long>
 {
+    private final long value;
+
     /**
      * Creates a LongNode
      *
@@ -34,6 +36,28 @@ public class LongNode extends ValueNode<Long>
      */
     public LongNode(long value)
     {
-        super(value);
+        this.value = value;
+    }
+
+    @Override
+    public Long getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * Returns the value without boxing it
+     *
+     * @return the value
+     */
+    public long getLong()
+    {
+        return this.value;
+    }
+
+    @Override
+    public String asText()
+    {
+        return String.valueOf(this.value);
     }
 }
@@ -22,28 +22,74 @@
  */
 package org.cubeengine.converter.node;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
  * A MapNode
  * <p>It can map KeyNodes onto other Nodes
+ * <p>The entries are kept in insertion order in parallel arrays holding the lowercased key, the original key and the
+ * Node. Small maps are searched linearly, larger maps additionally build an open addressing hash index.
+ * <p>Keys are trimmed and lowercased independent of the default locale. Keys are normalized once when set, lookups
+ * compare case-insensitive without creating new Strings. A case-sensitive MapNode does not normalize its keys at all.
+ * <p>If a {@link KeyPool} is given the keys are taken from it. MapNodes created by this MapNode use the same pool.
  */
 public class MapNode extends ContainerNode<Map<String, Node>>
 {
-    private Map<String, Node> mappedNodes = new LinkedHashMap<String, Node>();
+    private static final String[] NO_KEYS = new String[0];
+    private static final Node[] NO_NODES = new Node[0];
     /**
-     * LowerCase trimmed -> Original
+     * The amount of entries up to which no hash index is built
      */
-    private Map<String, String> keys = new HashMap<String, String>();
-    private Map<Node, String> reverseMappedNodes = new LinkedHashMap<Node, String>();
+    private static final int INDEX_THRESHOLD = 8;
+
+    /**
+     * LowerCase trimmed keys
+     */
+    private String[] keys = NO_KEYS;
+    private String[] originalKeys = NO_KEYS;
+    private Node[] nodes = NO_NODES;
+    private int size = 0;
+    /**
+     * Open addressing table of entry positions + 1 or null while the map is small
+     */
+    private int[] index;
+    private int modCount = 0;
+    private final boolean caseSensitive;
+    private final KeyPool keyPool;
 
     public MapNode()
     {
+        this(false);
+    }
+
+    /**
+     * Creates an empty MapNode
+     *
+     * @param caseSensitive true if keys should not be trimmed and lowercased
+     */
+    public MapNode(boolean caseSensitive)
+    {
+        this(caseSensitive, null);
+    }
+
+    /**
+     * Creates an empty MapNode taking its keys from a KeyPool
+     *
+     * @param caseSensitive true if keys should not be trimmed and lowercased
+     * @param keyPool       the pool or null to not pool keys
+     */
+    public MapNode(boolean caseSensitive, KeyPool keyPool)
+    {
+        this.caseSensitive = caseSensitive;
+        this.keyPool = keyPool;
     }
 
     @Override
@@ -62,33 +108,77 @@ public class MapNode extends ContainerNode<Map<String, Node>>
         return new MapNode();
     }
 
+    /**
+     * Creates an empty MapNode with case-sensitive keys
+     *
+     * @return an empty case-sensitive MapNode
+     */
+    public static MapNode caseSensitiveMap()
+    {
+        return new MapNode(true);
+    }
+
+    /**
+     * Returns whether the keys of this MapNode are case-sensitive
+     *
+     * @return true if keys are not trimmed and lowercased
+     */
+    public boolean isCaseSensitive()
+    {
+        return this.caseSensitive;
+    }
+
+    /**
+     * Returns the pool the keys are taken from
+     *
+     * @return the pool or null if keys are not pooled
+     */
+    public KeyPool getKeyPool()
+    {
+        return this.keyPool;
+    }
+
+    @Override
+    protected MapNode newMapNode()
+    {
+        return new MapNode(this.caseSensitive, this.keyPool);
+    }
+
     @Override
     public Node get(String key)
     {
-        return this.mappedNodes.get(key.trim().toLowerCase());
+        int pos = this.indexOf(key);
+        return pos < 0 ? null : this.nodes[pos];
     }
 
     @Override
     public final Node set(String key, Node node)
     {
-        String loweredKey = key.trim().toLowerCase();
+        String loweredKey = this.normalize(key);
         if (loweredKey.isEmpty())
         {
             throw new IllegalArgumentException("The key for the following node is empty!" + node.toString());
         }
-        this.keys.put(loweredKey, key);
-        this.reverseMappedNodes.put(node, loweredKey);
-        return this.mappedNodes.put(loweredKey, node);
+        KeyPool pool = this.keyPool;
+        if (pool != null)
+        {
+            loweredKey = pool.intern(loweredKey);
+            key = loweredKey.equals(key) ? loweredKey : pool.intern(key);
+        }
+        return this.put(loweredKey, key, node);
     }
 
     @Override
     protected final Node remove(String key)
     {
-        Node node = this.mappedNodes.remove(key);
+        int pos = this.indexOf(key);
+        if (pos < 0)
+        {
+            return null;
+        }
+        Node node = this.removeAt(pos);
         if (node instanceof NullNode)
         {
-            this.reverseMappedNodes.remove(node);
-            this.mappedNodes.remove(key);
             return null;
         }
         return node;
@@ -96,48 +186,60 @@ public class MapNode extends ContainerNode<Map<String, Node>>
 
     public String getOriginalKey(String lowerCasedKey)
     {
-        return this.keys.get(lowerCasedKey);
+        int pos = this.indexOf(lowerCasedKey);
+        return pos < 0 ? null : this.originalKeys[pos];
     }
 
+    /**
+     * Returns a view of the mapped Nodes by their lowercased key in insertion order
+     * <p>Changes to the view are written through to this MapNode. Keys are looked up like in {@link #get(String)}
+     *
+     * @return the mapped Nodes
+     */
     public Map<String, Node> getMappedNodes()
     {
-        return mappedNodes;
+        return new MappedNodes();
+    }
+
+    /**
+     * Returns the amount of mapped Nodes
+     *
+     * @return the size
+     */
+    public int size()
+    {
+        return this.size;
     }
 
     @Override
     public boolean isEmpty()
     {
-        return this.mappedNodes.isEmpty();
+        return this.size == 0;
     }
 
     @Override
     public void cleanUpEmptyNodes()
     {
-        Set<String> nodesToRemove = new HashSet<String>();
-        for (String key : this.mappedNodes.keySet())
+        for (int i = this.size - 1; i >= 0; i--)
         {
-            if (this.mappedNodes.get(key) instanceof ContainerNode)
+            if (this.nodes[i] instanceof ContainerNode)
             {
-                ((ContainerNode)this.mappedNodes.get(key)).cleanUpEmptyNodes();
-                if (((ContainerNode)this.mappedNodes.get(key)).isEmpty())
+                ((ContainerNode)this.nodes[i]).cleanUpEmptyNodes();
+                if (((ContainerNode)this.nodes[i]).isEmpty())
                 {
-                    nodesToRemove.add(key);
+                    this.removeAt(i);
                 }
             }
         }
-        for (String key : nodesToRemove)
-        {
-            this.mappedNodes.remove(key);
-        }
     }
 
     @Override
     public String asString()
     {
         StringBuilder sb = new StringBuilder("MapNode=[");
-        for (Entry<String, Node> entry : this.mappedNodes.entrySet())
+        for (int i = 0; i < this.size; i++)
         {
-            sb.append("\n").append(entry.getKey()).append(": ").append(entry.getValue().asString());
+            sb.append("\n").append(this.keys[i]).append(": ").append(this.nodes[i].asString());
         }
         sb.append("]MapEnd");
         return sb.toString();
@@ -150,32 +252,506 @@ public class MapNode extends ContainerNode<Map<String, Node>>
      */
     public String getFirstKey()
     {
-        if (this.mappedNodes.isEmpty())
+        if (this.size == 0)
         {
             return null;
         }
-        return this.mappedNodes.keySet().iterator().next();
+        return this.keys[0];
     }
 
     public void inheritFrom(Node node)
     {
         if (node instanceof MapNode)
         {
-            Map<String, Node> inheritFrom = ((MapNode)node).getMappedNodes();
-            for (Entry<String, Node> entry : inheritFrom.entrySet())
+            MapNode inheritFrom = (MapNode)node;
+            for (int i = 0; i < inheritFrom.size; i++)
             {
-                Node mapped = mappedNodes.get(entry.getKey());
+                // the keys of the other MapNode might be normalized differently
+                String key = inheritFrom.originalKeys[i];
+                int pos = this.indexOf(key);
+                Node mapped = pos < 0 ? null : this.nodes[pos];
                 if (mapped == null || mapped instanceof NullNode)
                 {
-                    Node inherited = entry.getValue();
+                    Node inherited = inheritFrom.nodes[i];
                     inherited.setInherited(true);
-                    this.mappedNodes.put(entry.getKey(), inherited);
+                    this.set(key, inherited);
                 }
                 if (mapped instanceof MapNode)
                 {
-                    ((MapNode)mapped).inheritFrom(entry.getValue());
+                    ((MapNode)mapped).inheritFrom(inheritFrom.nodes[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Trims and lowercases the key unless this MapNode is case-sensitive
+     * <p>Returns the key itself if it is normalized already
+     *
+     * @param key the key
+     *
+     * @return the normalized key
+     */
+    private String normalize(String key)
+    {
+        if (this.caseSensitive)
+        {
+            return key;
+        }
+        return normalizeKey(key);
+    }
+
+    /**
+     * Returns the length of the entry arrays
+     *
+     * @return the capacity
+     */
+    int capacity()
+    {
+        return this.keys.length;
+    }
+
+    /**
+     * Returns the length of the hash index
+     *
+     * @return the length or 0 if there is no index
+     */
+    int indexLength()
+    {
+        return this.index == null ? 0 : this.index.length;
+    }
+
+    /**
+     * Trims and lowercases the key independent of the default locale like a case-insensitive MapNode does
+     * <p>Returns the key itself if it is normalized already
+     *
+     * @param key the key
+     *
+     * @return the normalized key
+     */
+    public static String normalizeKey(String key)
+    {
+        int start = trimStart(key);
+        int end = trimEnd(key, start);
+        char[] chars = null;
+        for (int i = start; i < end; i++)
+        {
+            char c = key.charAt(i);
+            char lower = Character.toLowerCase(c);
+            if (c != lower)
+            {
+                if (chars == null)
+                {
+                    chars = key.substring(start, end).toCharArray();
+                }
+                chars[i - start] = lower;
+            }
+        }
+        if (chars != null)
+        {
+            return new String(chars);
+        }
+        if (start == 0 && end == key.length())
+        {
+            return key;
+        }
+        return key.substring(start, end);
+    }
+
+    private static int trimStart(String key)
+    {
+        int start = 0;
+        while (start < key.length() && key.charAt(start) <= ' ')
+        {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String key, int start)
+    {
+        int end = key.length();
+        while (end > start && key.charAt(end - 1) <= ' ')
+        {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the hash of the normalized key without normalizing it
+     * <p>This equals the spread {@link String#hashCode()} of the normalized key
+     */
+    private int hash(String key, int start, int end)
+    {
+        int h;
+        if (this.caseSensitive)
+        {
+            h = key.hashCode();
+        }
+        else
+        {
+            h = 0;
+            for (int i = start; i < end; i++)
+            {
+                h = 31 * h + Character.toLowerCase(key.charAt(i));
+            }
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns whether the normalized key equals the range of the given key when normalized
+     */
+    private boolean matches(String normalized, String key, int start, int end)
+    {
+        if (this.caseSensitive)
+        {
+            return normalized.equals(key);
+        }
+        if (normalized.length() != end - start)
+        {
+            return false;
+        }
+        for (int i = start; i < end; i++)
+        {
+            char c = key.charAt(i);
+            char n = normalized.charAt(i - start);
+            if (c != n && Character.toLowerCase(c) != n)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the position of the key
+     *
+     * @param key the key, not necessarily normalized
+     *
+     * @return the position or -1 if not mapped
+     */
+    private int indexOf(String key)
+    {
+        int start = 0;
+        int end = key.length();
+        if (!this.caseSensitive)
+        {
+            start = trimStart(key);
+            end = trimEnd(key, start);
+        }
+        if (this.index == null)
+        {
+            for (int i = 0; i < this.size; i++)
+            {
+                if (this.matches(this.keys[i], key, start, end))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = this.index.length - 1;
+        for (int slot = this.hash(key, start, end) & mask; ; slot = (slot + 1) & mask)
+        {
+            int pos = this.index[slot] - 1;
+            if (pos < 0)
+            {
+                return -1;
+            }
+            if (this.matches(this.keys[pos], key, start, end))
+            {
+                return pos;
+            }
+        }
+    }
+
+    private Node put(String key, String originalKey, Node node)
+    {
+        int pos = this.indexOf(key);
+        if (pos >= 0)
+        {
+            Node previous = this.nodes[pos];
+            this.originalKeys[pos] = originalKey;
+            this.nodes[pos] = node;
+            return previous;
+        }
+        if (this.size == this.keys.length)
+        {
+            int capacity = Math.max(4, this.size + (this.size >> 1));
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.originalKeys = Arrays.copyOf(this.originalKeys, capacity);
+            this.nodes = Arrays.copyOf(this.nodes, capacity);
+        }
+        this.keys[this.size] = key;
+        this.originalKeys[this.size] = originalKey;
+        this.nodes[this.size] = node;
+        this.size++;
+        this.modCount++;
+        if (this.index == null ? this.size > INDEX_THRESHOLD : this.size * 2 > this.index.length)
+        {
+            this.rebuildIndex();
+        }
+        else if (this.index != null)
+        {
+            this.addToIndex(this.size - 1);
+        }
+        return null;
+    }
+
+    private Node removeAt(int pos)
+    {
+        Node node = this.nodes[pos];
+        if (this.index != null)
+        {
+            this.removeFromIndex(this.slotOf(pos));
+            // only the entries behind the removed one change their position
+            for (int i = pos + 1; i < this.size; i++)
+            {
+                this.index[this.slotOf(i)] = i;
+            }
+        }
+        int moved = this.size - pos - 1;
+        System.arraycopy(this.keys, pos + 1, this.keys, pos, moved);
+        System.arraycopy(this.originalKeys, pos + 1, this.originalKeys, pos, moved);
+        System.arraycopy(this.nodes, pos + 1, this.nodes, pos, moved);
+        this.size--;
+        this.keys[this.size] = null;
+        this.originalKeys[this.size] = null;
+        this.nodes[this.size] = null;
+        this.modCount++;
+        if (this.size <= INDEX_THRESHOLD)
+        {
+            this.index = null;
+        }
+        else if (this.size * 8 < this.index.length)
+        {
+            this.rebuildIndex();
+        }
+        return node;
+    }
+
+    /**
+     * Returns the slot of the index pointing at the position
+     */
+    private int slotOf(int pos)
+    {
+        int mask = this.index.length - 1;
+        int h = this.keys[pos].hashCode();
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (this.index[slot] != pos + 1)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Clears the slot and shifts back the following slots of its cluster that would not be found anymore
+     */
+    private void removeFromIndex(int slot)
+    {
+        int mask = this.index.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; this.index[next] != 0; next = (next + 1) & mask)
+        {
+            int h = this.keys[this.index[next] - 1].hashCode();
+            int home = (h ^ (h >>> 16)) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask))
+            {
+                this.index[hole] = this.index[next];
+                hole = next;
+            }
+        }
+        this.index[hole] = 0;
+    }
+
+    private void rebuildIndex()
+    {
+        this.index = new int[Integer.highestOneBit(this.size * 4 - 1)];
+        for (int i = 0; i < this.size; i++)
+        {
+            this.addToIndex(i);
+        }
+    }
+
+    private void addToIndex(int pos)
+    {
+        int mask = this.index.length - 1;
+        int h = this.keys[pos].hashCode();
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (this.index[slot] != 0)
+        {
+            slot = (slot + 1) & mask;
+        }
+        this.index[slot] = pos + 1;
+    }
+
+    /**
+     * A view on the entries of the MapNode
+     */
+    private final class MappedNodes extends AbstractMap<String, Node>
+    {
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return key instanceof String && indexOf((String)key) >= 0;
+        }
+
+        @Override
+        public Node get(Object key)
+        {
+            if (!(key instanceof String))
+            {
+                return null;
+            }
+            int pos = indexOf((String)key);
+            return pos < 0 ? null : nodes[pos];
+        }
+
+        @Override
+        public Node put(String key, Node value)
+        {
+            return set(key, value);
+        }
+
+        @Override
+        public Node remove(Object key)
+        {
+            if (!(key instanceof String))
+            {
+                return null;
+            }
+            int pos = indexOf((String)key);
+            return pos < 0 ? null : removeAt(pos);
+        }
+
+        @Override
+        public Set<Entry<String, Node>> entrySet()
+        {
+            return new AbstractSet<Entry<String, Node>>()
+            {
+                @Override
+                public Iterator<Entry<String, Node>> iterator()
+                {
+                    return new EntryIterator();
                 }
+
+                @Override
+                public int size()
+                {
+                    return size;
+                }
+            };
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Node>>
+    {
+        private int next = 0;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.next < size;
+        }
+
+        @Override
+        public Entry<String, Node> next()
+        {
+            if (modCount != this.expectedModCount)
+            {
+                throw new ConcurrentModificationException();
             }
+            if (this.next >= size)
+            {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next++;
+            return new MappedEntry(this.last);
+        }
+
+        @Override
+        public void remove()
+        {
+            if (this.last < 0)
+            {
+                throw new IllegalStateException();
+            }
+            if (modCount != this.expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(this.last);
+            this.next = this.last;
+            this.last = -1;
+            this.expectedModCount = modCount;
+        }
+    }
+
+    private final class MappedEntry implements Entry<String, Node>
+    {
+        private final int pos;
+        private final String key;
+
+        private MappedEntry(int pos)
+        {
+            this.pos = pos;
+            this.key = keys[pos];
+        }
+
+        @Override
+        public String getKey()
+        {
+            return this.key;
+        }
+
+        @Override
+        public Node getValue()
+        {
+            return nodes[this.pos];
+        }
+
+        @Override
+        public Node setValue(Node value)
+        {
+            Node previous = nodes[this.pos];
+            nodes[this.pos] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Entry))
+            {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>)o;
+            Node value = this.getValue();
+            return this.key.equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            Node value = this.getValue();
+            return this.key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.key + "=" + this.getValue();
         }
     }
 }
@@ -0,0 +1,361 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * The differences between two MapNode trees
+ * <p>A diff is computed in a single pass over both trees. Identical Nodes are skipped without looking at their
+ * children. Lists are compared by position after skipping their common prefix and suffix, so inserting or removing
+ * elements in one place of a list results in just these additions or removals.
+ * <p>Comments are not compared. Applying a diff inserts its Nodes into the target tree without copying them.
+ */
+public final class NodeDiff
+{
+    private final List<Change> changes;
+
+    private NodeDiff(List<Change> changes)
+    {
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * Computes the changes needed to turn one tree into the other
+     *
+     * @param from the old tree
+     * @param to   the new tree
+     *
+     * @return the diff
+     */
+    public static NodeDiff diff(MapNode from, MapNode to)
+    {
+        List<Change> changes = new ArrayList<Change>();
+        diffMap(new ArrayList<String>(), from, to, changes);
+        return new NodeDiff(changes);
+    }
+
+    private static void diff(List<String> path, Node from, Node to, List<Change> changes)
+    {
+        if (from == to)
+        {
+            return;
+        }
+        if (from instanceof MapNode && to instanceof MapNode)
+        {
+            diffMap(path, (MapNode)from, (MapNode)to, changes);
+        }
+        else if (from instanceof ListNode && to instanceof ListNode)
+        {
+            diffList(path, (ListNode)from, (ListNode)to, changes);
+        }
+        else if (!valueEquals(from, to))
+        {
+            changes.add(new Change(Type.CHANGED, new Path(path), from, to));
+        }
+    }
+
+    private static void diffMap(List<String> path, MapNode from, MapNode to, List<Change> changes)
+    {
+        for (Entry<String, Node> entry : from.getMappedNodes().entrySet())
+        {
+            Node toNode = to.get(entry.getKey());
+            path.add(from.getOriginalKey(entry.getKey()));
+            if (toNode == null)
+            {
+                changes.add(new Change(Type.REMOVED, new Path(path), entry.getValue(), null));
+            }
+            else
+            {
+                diff(path, entry.getValue(), toNode, changes);
+            }
+            path.remove(path.size() - 1);
+        }
+        for (Entry<String, Node> entry : to.getMappedNodes().entrySet())
+        {
+            if (from.get(entry.getKey()) == null)
+            {
+                path.add(to.getOriginalKey(entry.getKey()));
+                changes.add(new Change(Type.ADDED, new Path(path), null, entry.getValue()));
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    private static void diffList(List<String> path, ListNode from, ListNode to, List<Change> changes)
+    {
+        List<Node> fromList = from.getValue();
+        List<Node> toList = to.getValue();
+        int prefix = 0;
+        int max = Math.min(fromList.size(), toList.size());
+        while (prefix < max && equals(fromList.get(prefix), toList.get(prefix)))
+        {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix && equals(fromList.get(fromList.size() - 1 - suffix),
+                                               toList.get(toList.size() - 1 - suffix)))
+        {
+            suffix++;
+        }
+        int fromEnd = fromList.size() - suffix;
+        int toEnd = toList.size() - suffix;
+        int paired = Math.min(fromEnd, toEnd) - prefix;
+        for (int i = prefix; i < prefix + paired; i++)
+        {
+            path.add(String.valueOf(i));
+            diff(path, fromList.get(i), toList.get(i), changes);
+            path.remove(path.size() - 1);
+        }
+        // removals in descending order keep the indices of the remaining removals valid
+        for (int i = fromEnd - 1; i >= prefix + paired; i--)
+        {
+            path.add(String.valueOf(i));
+            changes.add(new Change(Type.REMOVED, new Path(path), fromList.get(i), null));
+            path.remove(path.size() - 1);
+        }
+        for (int i = prefix + paired; i < toEnd; i++)
+        {
+            path.add(String.valueOf(i));
+            changes.add(new Change(Type.ADDED, new Path(path), null, toList.get(i)));
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private static boolean valueEquals(Node from, Node to)
+    {
+        if (from instanceof NullNode || to instanceof NullNode)
+        {
+            return from instanceof NullNode && to instanceof NullNode;
+        }
+        if (from instanceof ContainerNode || to instanceof ContainerNode || from.getClass() != to.getClass())
+        {
+            return false;
+        }
+        Object value = from.getValue();
+        return value == null ? to.getValue() == null : value.equals(to.getValue());
+    }
+
+    /**
+     * Returns whether both Nodes hold equal data
+     */
+    private static boolean equals(Node from, Node to)
+    {
+        if (from == to)
+        {
+            return true;
+        }
+        if (from instanceof MapNode && to instanceof MapNode)
+        {
+            MapNode fromMap = (MapNode)from;
+            MapNode toMap = (MapNode)to;
+            if (fromMap.size() != toMap.size())
+            {
+                return false;
+            }
+            for (Entry<String, Node> entry : fromMap.getMappedNodes().entrySet())
+            {
+                Node toNode = toMap.get(entry.getKey());
+                if (toNode == null || !equals(entry.getValue(), toNode))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (from instanceof ListNode && to instanceof ListNode)
+        {
+            List<Node> fromList = ((ListNode)from).getValue();
+            List<Node> toList = ((ListNode)to).getValue();
+            if (fromList.size() != toList.size())
+            {
+                return false;
+            }
+            for (int i = 0; i < fromList.size(); i++)
+            {
+                if (!equals(fromList.get(i), toList.get(i)))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return valueEquals(from, to);
+    }
+
+    /**
+     * Returns the changes in the order they have to be applied
+     *
+     * @return the changes
+     */
+    public List<Change> getChanges()
+    {
+        return changes;
+    }
+
+    /**
+     * Returns whether both trees were equal
+     *
+     * @return true if there are no changes
+     */
+    public boolean isEmpty()
+    {
+        return this.changes.isEmpty();
+    }
+
+    /**
+     * Applies the changes to the tree
+     * <p>Applying the diff to the old tree turns it into the new tree
+     *
+     * @param target the tree to change
+     *
+     * @throws IllegalArgumentException if the tree does not match the old tree of the diff
+     */
+    public void apply(MapNode target)
+    {
+        for (Change change : this.changes)
+        {
+            change.apply(target);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (Change change : this.changes)
+        {
+            sb.append(change).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The type of a change
+     */
+    public enum Type
+    {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+
+    /**
+     * A change of the Node at a path
+     */
+    public static final class Change
+    {
+        private final Type type;
+        private final Path path;
+        private final Node oldNode;
+        private final Node newNode;
+
+        private Change(Type type, Path path, Node oldNode, Node newNode)
+        {
+            this.type = type;
+            this.path = path;
+            this.oldNode = oldNode;
+            this.newNode = newNode;
+        }
+
+        public Type getType()
+        {
+            return type;
+        }
+
+        public Path getPath()
+        {
+            return path;
+        }
+
+        /**
+         * Returns the Node in the old tree
+         *
+         * @return the old Node or null if added
+         */
+        public Node getOldNode()
+        {
+            return oldNode;
+        }
+
+        /**
+         * Returns the Node in the new tree
+         *
+         * @return the new Node or null if removed
+         */
+        public Node getNewNode()
+        {
+            return newNode;
+        }
+
+        private void apply(MapNode target)
+        {
+            if (this.type == Type.REMOVED)
+            {
+                if (target.remove(this.path) == null && !(this.oldNode instanceof NullNode))
+                {
+                    throw new IllegalArgumentException("Cannot remove missing Node: " + this.path);
+                }
+                return;
+            }
+            if (this.type == Type.ADDED && this.path.getSize() > 1)
+            {
+                Node parent = target.get(new Path(this.path.getParts().subList(0, this.path.getSize() - 1)));
+                if (parent instanceof ListNode)
+                {
+                    int index = this.path.getIndex(this.path.getSize() - 1);
+                    List<Node> list = ((ListNode)parent).getValue();
+                    if (index < 0 || index > list.size())
+                    {
+                        throw new IllegalArgumentException("Cannot insert Node at " + this.path);
+                    }
+                    list.add(index, this.newNode);
+                    return;
+                }
+            }
+            target.set(this.path, this.newNode);
+        }
+
+        @Override
+        public String toString()
+        {
+            switch (this.type)
+            {
+                case ADDED:
+                    return "+ " + this.path + ": " + describe(this.newNode);
+                case REMOVED:
+                    return "- " + this.path + ": " + describe(this.oldNode);
+                default:
+                    return "~ " + this.path + ": " + describe(this.oldNode) + " -> " + describe(this.newNode);
+            }
+        }
+
+        private static String describe(Node node)
+        {
+            return node instanceof ContainerNode ? node.asString() : node.asText();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Estimates the heap memory retained by trees of Nodes
+ * <p>Estimates assume a 64 bit JVM using compressed references. Keys pooled in the {@link KeyPool} of their MapNode and
+ * comments are shared by many Nodes and not counted.
+ * <p>The layout helpers can be used to estimate other objects the same way. This class is thread-safe.
+ */
+public final class NodeFootprint
+{
+    /**
+     * The size of a reference
+     */
+    public static final int REFERENCE_SIZE = 4;
+    /**
+     * The size of the header of an object
+     */
+    public static final int OBJECT_HEADER_SIZE = 12;
+    /**
+     * The size of the header of an array
+     */
+    public static final int ARRAY_HEADER_SIZE = 16;
+
+    private static final ConcurrentMap<Class<?>, Long> SHALLOW_SIZES = new ConcurrentHashMap<Class<?>, Long>();
+    private static final boolean COMPACT_STRINGS = hasField(String.class, "coder");
+
+    private NodeFootprint()
+    {}
+
+    /**
+     * Estimates the memory retained by the Node and all its children
+     *
+     * @param node the Node
+     *
+     * @return the estimated size in bytes
+     */
+    public static long estimate(Node node)
+    {
+        if (node == null)
+        {
+            return 0;
+        }
+        long size = shallowSize(node.getClass());
+        if (node instanceof MapNode)
+        {
+            MapNode map = (MapNode)node;
+            if (map.capacity() != 0)
+            {
+                size += 3 * arraySize(map.capacity(), REFERENCE_SIZE);
+            }
+            if (map.indexLength() != 0)
+            {
+                size += arraySize(map.indexLength(), 4);
+            }
+            KeyPool pool = map.getKeyPool();
+            for (Entry<String, Node> entry : map.getMappedNodes().entrySet())
+            {
+                String key = entry.getKey();
+                String originalKey = map.getOriginalKey(key);
+                size += keySize(key, pool);
+                if (originalKey != key)
+                {
+                    size += keySize(originalKey, pool);
+                }
+                size += estimate(entry.getValue());
+            }
+        }
+        else if (node instanceof ListNode)
+        {
+            List<Node> list = ((ListNode)node).getValue();
+            size += shallowSize(ArrayList.class) + arraySize(list.size(), REFERENCE_SIZE);
+            for (Node child : list)
+            {
+                size += estimate(child);
+            }
+        }
+        else if (node instanceof StringNode)
+        {
+            size += stringSize(((StringNode)node).getValue());
+        }
+        return size;
+    }
+
+    private static long keySize(String key, KeyPool pool)
+    {
+        return pool != null && pool.isPooled(key) ? 0 : stringSize(key);
+    }
+
+    /**
+     * Returns the size of an instance of given class not counting referenced objects
+     *
+     * @param clazz the class
+     *
+     * @return the size in bytes
+     */
+    public static long shallowSize(Class<?> clazz)
+    {
+        Long size = SHALLOW_SIZES.get(clazz);
+        if (size == null)
+        {
+            long fields = 0;
+            for (Class<?> current = clazz; current != null; current = current.getSuperclass())
+            {
+                for (Field field : current.getDeclaredFields())
+                {
+                    if (!Modifier.isStatic(field.getModifiers()))
+                    {
+                        fields += fieldSize(field.getType());
+                    }
+                }
+            }
+            size = align(OBJECT_HEADER_SIZE + fields);
+            SHALLOW_SIZES.putIfAbsent(clazz, size);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the size of an array
+     *
+     * @param length      the length of the array
+     * @param elementSize the size of an element
+     *
+     * @return the size in bytes
+     */
+    public static long arraySize(int length, int elementSize)
+    {
+        return align(ARRAY_HEADER_SIZE + (long)length * elementSize);
+    }
+
+    /**
+     * Returns the size of a String and its characters
+     *
+     * @param string the String
+     *
+     * @return the size in bytes
+     */
+    public static long stringSize(String string)
+    {
+        if (string == null)
+        {
+            return 0;
+        }
+        int charSize = 2;
+        if (COMPACT_STRINGS)
+        {
+            charSize = 1;
+            for (int i = 0; i < string.length(); i++)
+            {
+                if (string.charAt(i) > 0xFF)
+                {
+                    charSize = 2;
+                    break;
+                }
+            }
+        }
+        return shallowSize(String.class) + arraySize(string.length(), charSize);
+    }
+
+    /**
+     * Returns the size of a field or array element of given type
+     *
+     * @param type the type
+     *
+     * @return the size in bytes
+     */
+    public static int fieldSize(Class<?> type)
+    {
+        if (type == long.class || type == double.class)
+        {
+            return 8;
+        }
+        if (type == int.class || type == float.class)
+        {
+            return 4;
+        }
+        if (type == short.class || type == char.class)
+        {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class)
+        {
+            return 1;
+        }
+        return REFERENCE_SIZE;
+    }
+
+    /**
+     * Rounds the size up to the alignment of objects
+     *
+     * @param size the size
+     *
+     * @return the aligned size
+     */
+    public static long align(long size)
+    {
+        return (size + 7) & ~7L;
+    }
+
+    private static boolean hasField(Class<?> clazz, String name)
+    {
+        try
+        {
+            clazz.getDeclaredField(name);
+            return true;
+        }
+        catch (NoSuchFieldException e)
+        {
+            return false;
+        }
+    }
+}
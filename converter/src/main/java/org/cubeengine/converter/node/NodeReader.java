@@ -0,0 +1,261 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import org.cubeengine.converter.ConversionException;
+
+/**
+ * A pull reader over a serialized tree of Nodes
+ * <p>Instead of loading a whole document into Nodes the reader returns one {@link Token} after another.
+ * Only the values being read at the moment have to be held in memory, large documents can be read with little memory.
+ * <p>A map is read as {@link Token#START_MAP}, a {@link Token#KEY} followed by its value for every entry and
+ * {@link Token#END_MAP}. A list is read as {@link Token#START_LIST}, its values and {@link Token#END_LIST}.
+ * All other values are read as a single {@link Token#VALUE}.
+ * <p>A NodeReader is not thread-safe.
+ */
+public abstract class NodeReader
+{
+    /**
+     * The tokens of a NodeReader
+     */
+    public enum Token
+    {
+        START_MAP,
+        KEY,
+        END_MAP,
+        START_LIST,
+        END_LIST,
+        VALUE,
+        END_DOCUMENT
+    }
+
+    private Token peeked;
+    private String peekedKey;
+    private Node peekedValue;
+
+    private String key;
+    private Node value;
+    private boolean caseSensitiveKeys = false;
+    private KeyPool keyPool;
+
+    /**
+     * Reads the next token from the underlying source
+     * <p>Use {@link #key(String)} and {@link #value(Node)} to return keys and values.
+     * Once the document ended {@link Token#END_DOCUMENT} must be returned on every call.
+     *
+     * @return the next token
+     */
+    protected abstract Token read() throws ConversionException;
+
+    /**
+     * Returns a {@link Token#KEY} token with given key
+     *
+     * @param key the key
+     *
+     * @return the token
+     */
+    protected final Token key(String key)
+    {
+        this.peekedKey = key;
+        return Token.KEY;
+    }
+
+    /**
+     * Returns a {@link Token#VALUE} token with given value
+     *
+     * @param value the value
+     *
+     * @return the token
+     */
+    protected final Token value(Node value)
+    {
+        this.peekedValue = value;
+        return Token.VALUE;
+    }
+
+    /**
+     * Returns the next token without consuming it
+     *
+     * @return the next token
+     */
+    public final Token peek() throws ConversionException
+    {
+        if (this.peeked == null)
+        {
+            this.peeked = this.read();
+        }
+        return this.peeked;
+    }
+
+    /**
+     * Consumes and returns the next token
+     *
+     * @return the next token
+     */
+    public final Token next() throws ConversionException
+    {
+        Token token = this.peek();
+        this.peeked = null;
+        if (token == Token.KEY)
+        {
+            this.key = this.peekedKey;
+        }
+        else if (token == Token.VALUE)
+        {
+            this.value = this.peekedValue;
+        }
+        return token;
+    }
+
+    /**
+     * Returns the key of the last {@link Token#KEY} consumed
+     *
+     * @return the key
+     */
+    public final String getKey()
+    {
+        return this.key;
+    }
+
+    /**
+     * Returns the value of the last {@link Token#VALUE} consumed
+     *
+     * @return the value
+     */
+    public final Node getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * Sets whether the MapNodes read are case-sensitive
+     *
+     * @param caseSensitive true to keep keys as they are
+     */
+    public final void setCaseSensitiveKeys(boolean caseSensitive)
+    {
+        this.caseSensitiveKeys = caseSensitive;
+    }
+
+    /**
+     * Returns whether the MapNodes read are case-sensitive
+     *
+     * @return true if keys are kept as they are
+     */
+    public final boolean isCaseSensitiveKeys()
+    {
+        return this.caseSensitiveKeys;
+    }
+
+    /**
+     * Sets the pool the MapNodes read take their keys from
+     *
+     * @param keyPool the pool or null to not pool keys
+     */
+    public final void setKeyPool(KeyPool keyPool)
+    {
+        this.keyPool = keyPool;
+    }
+
+    /**
+     * Creates an empty MapNode to read into
+     *
+     * @return the MapNode
+     */
+    protected final MapNode newMapNode()
+    {
+        return new MapNode(this.caseSensitiveKeys, this.keyPool);
+    }
+
+    /**
+     * Consumes the next value and returns it as Node
+     * <p>Maps and lists are read entirely
+     *
+     * @return the Node
+     */
+    public final Node readNode() throws ConversionException
+    {
+        Token token = this.next();
+        switch (token)
+        {
+            case VALUE:
+                return this.value;
+            case START_MAP:
+                MapNode map = this.newMapNode();
+                for (token = this.next(); token != Token.END_MAP; token = this.next())
+                {
+                    if (token != Token.KEY)
+                    {
+                        throw ConversionException.of(this, token, "Expected a key!");
+                    }
+                    map.set(this.key, this.readNode());
+                }
+                return map;
+            case START_LIST:
+                ListNode list = ListNode.emptyList();
+                while (this.peek() != Token.END_LIST)
+                {
+                    list.addNode(this.readNode());
+                }
+                this.next();
+                return list;
+            default:
+                throw ConversionException.of(this, token, "Expected a value!");
+        }
+    }
+
+    /**
+     * Consumes the next value without reading it into Nodes
+     */
+    public final void skipNode() throws ConversionException
+    {
+        Token token = this.next();
+        if (token == Token.VALUE)
+        {
+            return;
+        }
+        if (token != Token.START_MAP && token != Token.START_LIST)
+        {
+            throw ConversionException.of(this, token, "Expected a value!");
+        }
+        int depth = 1;
+        while (depth != 0)
+        {
+            switch (this.next())
+            {
+                case START_MAP:
+                case START_LIST:
+                    depth++;
+                    break;
+                case END_MAP:
+                case END_LIST:
+                    depth--;
+                    break;
+                case END_DOCUMENT:
+                    throw ConversionException.of(this, null, "Unexpected end of document!");
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -22,17 +22,24 @@
  */
 package org.cubeengine.converter.node;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * Represents a path to a node.
+ * <p>A Path is immutable. Its parts are parsed once, parts that are list indices are parsed to ints ahead of time.
  */
 public class Path
 {
-    private final List<String> parts;
+    private final String[] parts;
+    /**
+     * The parts parsed as list index or -1 if not a valid index
+     */
+    private final int[] indices;
+    private final List<String> partList;
+    private int hash;
 
     /**
      * Constructs a path using given parts.
@@ -41,18 +48,21 @@ public class Path
      */
     public Path(String... parts)
     {
-        this(Arrays.asList(parts));
+        this.parts = parts.clone();
+        this.indices = parseIndices(this.parts);
+        this.partList = Collections.unmodifiableList(Arrays.asList(this.parts));
     }
 
     /**
      * Constructs a path using given separator and path.
+     * <p>Trailing empty parts are ignored
      *
      * @param separator the separator
      * @param path      the path
      */
     public Path(String separator, String path)
     {
-        this(path.split(Pattern.quote(separator)));
+        this(split(separator, path));
     }
 
     /**
@@ -73,7 +83,67 @@ public class Path
      */
     public Path(List<String> parts)
     {
-        this.parts = Collections.unmodifiableList(parts);
+        this(parts.toArray(new String[parts.size()]));
+    }
+
+    /**
+     * Splits the path like {@link String#split(String)} with a literal separator
+     */
+    private static String[] split(String separator, String path)
+    {
+        if (separator.isEmpty())
+        {
+            throw new IllegalArgumentException("The separator may not be empty!");
+        }
+        int next = path.indexOf(separator);
+        if (next < 0)
+        {
+            return new String[]{path};
+        }
+        List<String> parts = new ArrayList<String>();
+        int start = 0;
+        while (next >= 0)
+        {
+            parts.add(path.substring(start, next));
+            start = next + separator.length();
+            next = path.indexOf(separator, start);
+        }
+        parts.add(path.substring(start));
+        int size = parts.size();
+        while (size > 0 && parts.get(size - 1).isEmpty())
+        {
+            size--;
+        }
+        return parts.subList(0, size).toArray(new String[size]);
+    }
+
+    private static int[] parseIndices(String[] parts)
+    {
+        int[] indices = new int[parts.length];
+        for (int i = 0; i < parts.length; i++)
+        {
+            indices[i] = parseIndex(parts[i]);
+        }
+        return indices;
+    }
+
+    private static int parseIndex(String part)
+    {
+        if (part.isEmpty() || part.length() > 10)
+        {
+            return -1;
+        }
+        long index = 0;
+        for (int i = 0; i < part.length(); i++)
+        {
+            char c = part.charAt(i);
+            if (c < '0' || c > '9')
+            {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index > Integer.MAX_VALUE ? -1 : (int)index;
     }
 
     /**
@@ -83,7 +153,31 @@ public class Path
      */
     public List<String> getParts()
     {
-        return parts;
+        return partList;
+    }
+
+    /**
+     * Gets the part at given position
+     *
+     * @param i the position
+     *
+     * @return the part
+     */
+    public String getPart(int i)
+    {
+        return this.parts[i];
+    }
+
+    /**
+     * Gets the part at given position parsed as list index
+     *
+     * @param i the position
+     *
+     * @return the index or -1 if the part is not a valid index
+     */
+    public int getIndex(int i)
+    {
+        return this.indices[i];
     }
 
     /**
@@ -93,7 +187,7 @@ public class Path
      */
     public int getSize()
     {
-        return this.parts.size();
+        return this.parts.length;
     }
 
     /**
@@ -134,7 +228,7 @@ public class Path
      */
     public String getLast()
     {
-        return this.parts.get(getSize() - 1);
+        return this.parts[getSize() - 1];
     }
 
     /**
@@ -144,7 +238,7 @@ public class Path
      */
     public String getFirst()
     {
-        return this.parts.get(0);
+        return this.parts[0];
     }
 
     /**
@@ -157,9 +251,46 @@ public class Path
         return getSize() == 1;
     }
 
-    // TODO needed?
+    /**
+     * Returns this path without its first part
+     *
+     * @return the sub path
+     */
     public Path subPath()
     {
-        return new Path(parts.subList(1, getSize()));
+        return new Path(Arrays.copyOfRange(this.parts, 1, getSize()));
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof Path))
+        {
+            return false;
+        }
+        Path path = (Path)o;
+        return this.hashCode() == path.hashCode() && Arrays.equals(this.parts, path.parts);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int h = this.hash;
+        if (h == 0)
+        {
+            h = Arrays.hashCode(this.parts);
+            this.hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.asString('.');
     }
 }
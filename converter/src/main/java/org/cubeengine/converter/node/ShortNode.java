@@ -27,6 +27,8 @@ package org.cubeengine.converter.node;
  */
 public class ShortNode extends ValueNode<Short>
 {
+    private final short value;
+
     /**
      * Creates a ShortNode
      *
@@ -34,6 +36,28 @@ public class ShortNode extends ValueNode<Short>
      */
     public ShortNode(short value)
     {
-        super(value);
+        this.value = value;
+    }
+
+    @Override
+    public Short getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * Returns the value without boxing it
+     *
+     * @return the value
+     */
+    public short getShort()
+    {
+        return this.value;
+    }
+
+    @Override
+    public String asText()
+    {
+        return String.valueOf(this.value);
     }
 }
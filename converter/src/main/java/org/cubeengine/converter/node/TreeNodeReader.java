@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+/**
+ * A NodeReader over a tree of Nodes already in memory
+ * <p>Used by sources that cannot be read token by token
+ */
+public class TreeNodeReader extends NodeReader
+{
+    private final Deque<Object> stack = new ArrayDeque<Object>();
+    private Node pending;
+
+    /**
+     * Creates a reader returning given Node and all its children
+     *
+     * @param node the Node to read
+     */
+    public TreeNodeReader(Node node)
+    {
+        this.pending = node == null ? NullNode.emptyNode() : node;
+    }
+
+    @Override
+    protected Token read()
+    {
+        if (this.pending != null)
+        {
+            Node node = this.pending;
+            this.pending = null;
+            if (node instanceof MapNode)
+            {
+                this.stack.push(new MapFrame((MapNode)node));
+                return Token.START_MAP;
+            }
+            if (node instanceof ListNode)
+            {
+                this.stack.push(((ListNode)node).getValue().iterator());
+                return Token.START_LIST;
+            }
+            return this.value(node);
+        }
+        Object top = this.stack.peek();
+        if (top == null)
+        {
+            return Token.END_DOCUMENT;
+        }
+        if (top instanceof MapFrame)
+        {
+            MapFrame frame = (MapFrame)top;
+            if (frame.entries.hasNext())
+            {
+                Entry<String, Node> entry = frame.entries.next();
+                this.pending = entry.getValue();
+                return this.key(frame.map.getOriginalKey(entry.getKey()));
+            }
+            this.stack.pop();
+            return Token.END_MAP;
+        }
+        @SuppressWarnings("unchecked")
+        Iterator<Node> nodes = (Iterator<Node>)top;
+        if (nodes.hasNext())
+        {
+            this.pending = nodes.next();
+            return this.read();
+        }
+        this.stack.pop();
+        return Token.END_LIST;
+    }
+
+    private static final class MapFrame
+    {
+        private final MapNode map;
+        private final Iterator<Entry<String, Node>> entries;
+
+        private MapFrame(MapNode map)
+        {
+            this.map = map;
+            this.entries = map.getMappedNodes().entrySet().iterator();
+        }
+    }
+}
@@ -22,6 +22,11 @@
  */
 package org.cubeengine.converter.node;
 
+/**
+ * A Node holding a single value
+ * <p>The value Nodes of primitive types store the primitive value and box it only when {@link #getValue()} is called.
+ * Use their primitive getters like {@link IntNode#getInt()} to avoid boxing.
+ */
 public abstract class ValueNode<V> extends Node<V>
 {
     private V value;
@@ -31,6 +36,14 @@ public abstract class ValueNode<V> extends Node<V>
         this.value = value;
     }
 
+    /**
+     * Creates a ValueNode not holding a boxed value
+     * <p>The subclass has to store the value itself and override {@link #getValue()}
+     */
+    protected ValueNode()
+    {
+    }
+
     @Override
     public V getValue()
     {
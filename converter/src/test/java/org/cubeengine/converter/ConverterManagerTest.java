@@ -26,16 +26,27 @@ import java.lang.reflect.Type;
 import java.sql.Date;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.logging.Level;
 
+import org.cubeengine.converter.converter.SimpleConverter;
+import org.cubeengine.converter.converter.generic.CollectionConverter;
+import org.cubeengine.converter.converter.generic.MapConverter;
+import org.cubeengine.converter.node.DoubleNode;
+import org.cubeengine.converter.node.IntNode;
+import org.cubeengine.converter.node.ListNode;
+import org.cubeengine.converter.node.LongNode;
+import org.cubeengine.converter.node.MapNode;
 import org.cubeengine.converter.node.Node;
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class ConverterManagerTest
 {
@@ -71,6 +82,59 @@ public class ConverterManagerTest
         check(ConverterManagerTest.class);
     }
 
+    @Test
+    public void testPrimitiveNodes() throws ConversionException
+    {
+        assertEquals(42, ((IntNode)manager.convertToNode(42)).getInt());
+        assertEquals(42L, ((LongNode)manager.convertToNode(42L)).getLong());
+        assertEquals(1.5, ((DoubleNode)manager.convertToNode(1.5)).getDouble(), 0);
+        assertEquals("42", new IntNode(42).asText());
+        assertEquals(42, (int)manager.convertFromNode(new IntNode(42), int.class));
+        assertEquals(42L, (long)manager.convertFromNode(new IntNode(42), long.class));
+    }
+
+    @Test
+    public void testParallelConversion() throws Exception
+    {
+        manager.getConverterByClass(CollectionConverter.class).setParallelThreshold(100);
+        manager.getConverterByClass(MapConverter.class).setParallelThreshold(100);
+        assertTrue(manager.isThreadSafe());
+
+        List<String> bigList = new ArrayList<String>();
+        Map<String, String> bigMap = new LinkedHashMap<String, String>();
+        for (int i = 0; i < 10000; i++)
+        {
+            bigList.add("value" + i);
+            bigMap.put("Key" + i, "value" + i);
+        }
+        Node listNode = manager.convertToNode(bigList);
+        assertEquals("value1234", ((ListNode)listNode).getValue().get(1234).getValue());
+        assertEquals(bigList, manager.convertFromNode(listNode, getClass().getDeclaredField("list").getGenericType()));
+
+        Node mapNode = manager.convertToNode(bigMap);
+        assertEquals("Key1234", ((MapNode)mapNode).getOriginalKey("key1234"));
+        Map<String, String> converted = manager.convertFromNode(mapNode, getClass().getDeclaredField("map").getGenericType());
+        assertEquals(new ArrayList<String>(bigMap.keySet()), new ArrayList<String>(converted.keySet()));
+        assertEquals(bigMap, converted);
+
+        manager.registerConverter(new SimpleConverter<Object>()
+        {
+            @Override
+            public Node toNode(Object object) throws ConversionException
+            {
+                return null;
+            }
+
+            @Override
+            public Object fromNode(Node node) throws ConversionException
+            {
+                return null;
+            }
+        }, ConverterManagerTest.class);
+        assertFalse(manager.isThreadSafe());
+        assertEquals(bigList, manager.convertFromNode(listNode, getClass().getDeclaredField("list").getGenericType()));
+    }
+
     List<String> list = new ArrayList<String>();
     Map<String, String> map = new HashMap<String, String>();
     String[] array = {"TEST"};
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ImmutableNodeTest
+{
+    private static Path path(String path)
+    {
+        return new Path('.', path);
+    }
+
+    @Test
+    public void testStructuralSharing()
+    {
+        ImmutableMapNode v1 = ImmutableMapNode.EMPTY.with(path("a.x"), ImmutableValueNode.of(1))
+                                                    .with(path("b.y"), ImmutableValueNode.of("y"));
+        ImmutableMapNode v2 = v1.with(path("A.X"), ImmutableValueNode.of(2));
+
+        assertEquals(1, ((ImmutableValueNode)v1.get(path("a.x"))).getValue());
+        assertEquals(2, ((ImmutableValueNode)v2.get(path("a.x"))).getValue());
+        assertTrue(v1.get("b") == v2.get("b")); // unchanged subtree is shared
+        assertTrue(v1.with(path("b.y"), v1.get(path("b.y"))) == v1);
+        assertTrue(v2.without(path("missing.key")) == v2);
+        assertNull(v2.without(path("b.y")).get(path("b.y")));
+        assertEquals(v1, v2.with(path("a.x"), ImmutableValueNode.of(1)));
+    }
+
+    @Test
+    public void testLists()
+    {
+        ImmutableListNode list = ImmutableListNode.EMPTY.plus(ImmutableMapNode.EMPTY).plus(ImmutableValueNode.of(2));
+        ImmutableMapNode map = ImmutableMapNode.EMPTY.with("list", list);
+        map = map.with(path("list.0.value"), ImmutableValueNode.of(true));
+        assertEquals(true, ((ImmutableValueNode)map.get(path("list.0.value"))).getValue());
+        assertEquals(2, ((ImmutableListNode)map.get("list")).size());
+        assertEquals(1, ((ImmutableListNode)map.without(path("list.1")).get("list")).size());
+    }
+
+    @Test
+    public void testConversion()
+    {
+        MapNode mutable = MapNode.emptyMap();
+        mutable.set(path("Section.Value"), new IntNode(5));
+        mutable.set("Name", new StringNode("name"));
+        mutable.get("name").setComments(new String[]{"a comment"});
+        ListNode list = ListNode.emptyList();
+        list.addNode(new DoubleNode(1.5));
+        list.addNode(NullNode.emptyNode());
+        mutable.set("list", list);
+
+        ImmutableMapNode immutable = (ImmutableMapNode)ImmutableNode.of(mutable);
+        assertEquals("Name", immutable.getOriginalKey("name"));
+        assertEquals("a comment", immutable.get("name").getComments()[0]);
+
+        MapNode copy = immutable.toMutable();
+        assertEquals(5, copy.get(path("section.value")).getValue());
+        assertEquals("Name", copy.getOriginalKey("name"));
+        assertEquals("a comment", copy.get("name").getComments()[0]);
+        assertSame(mutable.get("name").getSharedComments(), copy.get("name").getSharedComments());
+        copy.get("name").getComments()[0] = "changed";
+        assertEquals("a comment", copy.get("name").getSharedComments().get(0));
+        assertTrue(((ListNode)copy.get("list")).getValue().get(1) instanceof NullNode);
+        assertEquals(immutable, ImmutableNode.of(copy));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KeyPoolTest
+{
+    @Test
+    public void testIntern()
+    {
+        KeyPool pool = new KeyPool(4);
+        String key = new String("key");
+        assertTrue(key == pool.intern(key));
+        assertTrue(key == pool.intern(new String("key")));
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+        assertEquals(0.5, pool.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void testEviction()
+    {
+        KeyPool pool = new KeyPool(4);
+        String key = new String("key");
+        pool.intern(key);
+        for (int i = 0; i < 100; i++)
+        {
+            assertTrue(key == pool.intern(new String("key"))); // used keys stay pooled
+            pool.intern("unique" + i);
+            assertTrue(pool.size() <= 4);
+        }
+        String unique = new String("unique0");
+        assertTrue(unique == pool.intern(unique)); // evicted
+    }
+
+    @Test
+    public void testMapNodeKeys()
+    {
+        KeyPool pool = new KeyPool(100);
+        MapNode first = new MapNode(false, pool);
+        first.set(new String("Key"), new IntNode(1));
+        MapNode second = new MapNode(false, pool);
+        second.set(new String("Key"), new IntNode(2));
+        assertTrue(first.getFirstKey() == second.getFirstKey());
+        assertTrue(first.getOriginalKey("key") == second.getOriginalKey("key"));
+        assertEquals(0.5, pool.getHitRate(), 0.0001);
+
+        first.set(new Path(".", "section.Key"), new IntNode(3));
+        assertTrue(((MapNode)first.get("section")).getKeyPool() == pool);
+        assertTrue(MapNode.emptyMap().getKeyPool() == null);
+    }
+}
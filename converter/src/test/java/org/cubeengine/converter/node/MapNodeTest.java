@@ -0,0 +1,189 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MapNodeTest
+{
+    @Test
+    public void testSetAndGet()
+    {
+        MapNode node = MapNode.emptyMap();
+        for (int i = 0; i < 50; i++)
+        {
+            node.set("Key" + i, new IntNode(i));
+        }
+        assertEquals(50, node.size());
+        for (int i = 0; i < 50; i++)
+        {
+            assertEquals(i, node.get("key" + i).getValue());
+            assertEquals(i, node.get(" KEY" + i + " ").getValue());
+            assertEquals("Key" + i, node.getOriginalKey("key" + i));
+        }
+        assertNull(node.get("key50"));
+
+        Node previous = node.set("KEY7", new IntNode(-7));
+        assertEquals(7, previous.getValue());
+        assertEquals(-7, node.get("key7").getValue());
+        assertEquals("KEY7", node.getOriginalKey("key7"));
+        assertEquals(50, node.size());
+    }
+
+    @Test
+    public void testOrderAndRemoval()
+    {
+        MapNode node = MapNode.emptyMap();
+        for (int i = 0; i < 20; i++)
+        {
+            node.set("key" + i, new IntNode(i));
+        }
+        Iterator<Entry<String, Node>> it = node.getMappedNodes().entrySet().iterator();
+        while (it.hasNext())
+        {
+            if (((Integer)it.next().getValue().getValue()) % 2 == 0)
+            {
+                it.remove();
+            }
+        }
+        assertEquals(10, node.size());
+        assertEquals("key1", node.getFirstKey());
+        int expected = 1;
+        for (Entry<String, Node> entry : node.getMappedNodes().entrySet())
+        {
+            assertEquals("key" + expected, entry.getKey());
+            assertEquals(expected, entry.getValue().getValue());
+            expected += 2;
+        }
+        for (int i = 0; i < 20; i++)
+        {
+            assertEquals(i % 2 == 1, node.get("key" + i) != null);
+        }
+    }
+
+    @Test
+    public void testCaseInsensitiveKeys()
+    {
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try
+        {
+            MapNode node = MapNode.emptyMap();
+            node.set("  TITLE ", new IntNode(1));
+            assertEquals("title", node.getFirstKey());
+            assertEquals("  TITLE ", node.getOriginalKey("title"));
+            assertEquals(1, node.get("Title").getValue());
+            assertEquals(1, node.get("title\t").getValue());
+            assertNull(node.get("titles"));
+        }
+        finally
+        {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test
+    public void testCaseSensitiveKeys()
+    {
+        MapNode node = MapNode.caseSensitiveMap();
+        node.set("Key", new IntNode(1));
+        node.set("key", new IntNode(2));
+        assertEquals(2, node.size());
+        assertEquals(1, node.get("Key").getValue());
+        assertEquals(2, node.get("key").getValue());
+        assertNull(node.get("KEY"));
+
+        node.set(new Path(".", "Section.Value"), new IntNode(3));
+        assertTrue(((MapNode)node.get("Section")).isCaseSensitive());
+        assertNull(node.get(new Path(".", "section.value")));
+    }
+
+    @Test
+    public void testCleanUpEmptyNodes()
+    {
+        MapNode node = MapNode.emptyMap();
+        node.set("empty", MapNode.emptyMap());
+        node.set("value", new IntNode(1));
+        node.set("also empty", MapNode.emptyMap());
+        node.cleanUpEmptyNodes();
+        assertEquals(1, node.size());
+        assertTrue(node.get("value") instanceof IntNode);
+    }
+
+    @Test
+    public void testRemovalKeepsIndex()
+    {
+        MapNode node = MapNode.emptyMap();
+        for (int i = 0; i < 1000; i++)
+        {
+            node.set("key" + i, new IntNode(i));
+        }
+        for (int i = 0; i < 1000; i += 3)
+        {
+            node.getMappedNodes().remove("KEY" + i);
+        }
+        for (int i = 0; i < 1000; i++)
+        {
+            Node value = node.get("key" + i);
+            if (i % 3 == 0)
+            {
+                assertNull(value);
+            }
+            else
+            {
+                assertEquals(i, value.getValue());
+            }
+        }
+        for (int i = 0; i < 1000; i++)
+        {
+            node.getMappedNodes().remove("key" + i);
+        }
+        assertEquals(0, node.size());
+        assertEquals(0, node.indexLength());
+    }
+
+    @Test
+    public void testInheritFromCaseSensitive()
+    {
+        MapNode parent = MapNode.caseSensitiveMap();
+        parent.set("Value", new IntNode(1));
+        MapNode child = MapNode.emptyMap();
+        child.inheritFrom(parent);
+        assertEquals("value", child.getFirstKey());
+        assertEquals(1, child.get("VALUE").getValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMappedNodesEmptyKey()
+    {
+        MapNode.emptyMap().getMappedNodes().put(" ", new IntNode(1));
+    }
+}
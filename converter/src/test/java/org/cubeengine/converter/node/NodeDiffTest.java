@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NodeDiffTest
+{
+    private static Path path(String path)
+    {
+        return new Path('.', path);
+    }
+
+    private static ListNode list(int... values)
+    {
+        ListNode list = ListNode.emptyList();
+        for (int value : values)
+        {
+            list.addNode(new IntNode(value));
+        }
+        return list;
+    }
+
+    private static MapNode tree()
+    {
+        MapNode node = MapNode.emptyMap();
+        node.set(path("a.value"), new IntNode(1));
+        node.set(path("a.name"), new StringNode("name"));
+        node.set(path("b.value"), new IntNode(2));
+        node.set("list", list(1, 2, 3, 4, 5));
+        return node;
+    }
+
+    @Test
+    public void testDiffAndApply()
+    {
+        MapNode from = tree();
+        MapNode to = tree();
+        to.set(path("a.value"), new IntNode(10));
+        to.remove(path("a.name"));
+        to.set(path("c.value"), new StringNode("new"));
+        to.set("list", list(1, 2, 7, 3, 5));
+
+        NodeDiff diff = NodeDiff.diff(from, to);
+        assertEquals(diff.toString(), 5, diff.getChanges().size());
+
+        NodeDiff.Change first = diff.getChanges().get(0);
+        assertEquals(NodeDiff.Type.CHANGED, first.getType());
+        assertEquals(path("a.value"), first.getPath());
+
+        diff.apply(from);
+        assertEquals(ImmutableNode.of(to), ImmutableNode.of(from));
+        assertTrue(NodeDiff.diff(from, to).isEmpty());
+    }
+
+    @Test
+    public void testListEdits()
+    {
+        MapNode from = MapNode.emptyMap();
+        from.set("list", list(1, 2, 3, 4));
+        MapNode to = MapNode.emptyMap();
+        to.set("list", list(1, 4));
+
+        NodeDiff diff = NodeDiff.diff(from, to);
+        assertEquals(diff.toString(), 2, diff.getChanges().size());
+        assertEquals(NodeDiff.Type.REMOVED, diff.getChanges().get(0).getType());
+        assertEquals(path("list.2"), diff.getChanges().get(0).getPath());
+        diff.apply(from);
+        assertEquals(ImmutableNode.of(to), ImmutableNode.of(from));
+
+        NodeDiff back = NodeDiff.diff(from, tree());
+        back.apply(from);
+        assertEquals(ImmutableNode.of(tree()), ImmutableNode.of(from));
+    }
+
+    @Test
+    public void testSharedSubtree()
+    {
+        MapNode shared = MapNode.emptyMap();
+        shared.set("value", new IntNode(1));
+        MapNode from = MapNode.emptyMap();
+        from.set("shared", shared);
+        MapNode to = MapNode.emptyMap();
+        to.set("shared", shared);
+        assertTrue(NodeDiff.diff(from, to).isEmpty());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NodeFootprintTest
+{
+    @Test
+    public void testLayout()
+    {
+        assertEquals(16, NodeFootprint.shallowSize(Object.class));
+        assertEquals(24, NodeFootprint.arraySize(2, 4));
+        assertEquals(24, NodeFootprint.arraySize(5, 1));
+        assertTrue(NodeFootprint.stringSize("a long string value") > NodeFootprint.stringSize("a"));
+    }
+
+    @Test
+    public void testEstimate()
+    {
+        MapNode map = MapNode.emptyMap();
+        long empty = NodeFootprint.estimate(map);
+        assertEquals(NodeFootprint.shallowSize(MapNode.class), empty);
+
+        map.set("value", new IntNode(1));
+        long one = NodeFootprint.estimate(map);
+        assertEquals(empty + 3 * NodeFootprint.arraySize(map.capacity(), NodeFootprint.REFERENCE_SIZE)
+                         + NodeFootprint.stringSize("value") + NodeFootprint.shallowSize(IntNode.class), one);
+
+        map.set("Text", new StringNode("some text"));
+        assertTrue(NodeFootprint.estimate(map) > one + NodeFootprint.stringSize("some text"));
+
+        MapNode pooled = new MapNode(false, new KeyPool(16));
+        pooled.set("value", new IntNode(1));
+        assertEquals(one - NodeFootprint.stringSize("value"), NodeFootprint.estimate(pooled));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import org.cubeengine.converter.node.NodeReader.Token;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class NodeReaderTest
+{
+    private static MapNode tree()
+    {
+        MapNode root = MapNode.emptyMap();
+        root.set("Name", new StringNode("value"));
+        ListNode list = ListNode.emptyList();
+        list.addNode(new IntNode(1));
+        list.addNode(MapNode.emptyMap());
+        root.set("list", list);
+        root.set(new Path(".", "section.value"), new IntNode(5));
+        return root;
+    }
+
+    @Test
+    public void testTokens() throws Exception
+    {
+        NodeReader reader = new TreeNodeReader(tree());
+        assertEquals(Token.START_MAP, reader.next());
+        assertEquals(Token.KEY, reader.next());
+        assertEquals("Name", reader.getKey());
+        assertEquals(Token.VALUE, reader.peek());
+        assertEquals("Name", reader.getKey());
+        assertEquals(Token.VALUE, reader.next());
+        assertEquals("value", reader.getValue().getValue());
+        assertEquals(Token.KEY, reader.next());
+        assertEquals(Token.START_LIST, reader.next());
+        assertEquals(Token.VALUE, reader.next());
+        assertEquals(1, reader.getValue().getValue());
+        assertEquals(Token.START_MAP, reader.next());
+        assertEquals(Token.END_MAP, reader.next());
+        assertEquals(Token.END_LIST, reader.next());
+        assertEquals(Token.KEY, reader.next());
+        reader.skipNode();
+        assertEquals(Token.END_MAP, reader.next());
+        assertEquals(Token.END_DOCUMENT, reader.next());
+        assertEquals(Token.END_DOCUMENT, reader.next());
+    }
+
+    @Test
+    public void testReadNode() throws Exception
+    {
+        MapNode tree = tree();
+        Node read = new TreeNodeReader(tree).readNode();
+        assertEquals(ImmutableNode.of(tree), ImmutableNode.of(read));
+        assertEquals("Name", ((MapNode)read).getOriginalKey("name"));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PathTest
+{
+    @Test
+    public void testParse()
+    {
+        assertEquals(Arrays.asList("a", "b", "c"), new Path(".", "a.b.c").getParts());
+        assertEquals(Arrays.asList("a", "", "b"), new Path(".", "a..b..").getParts());
+        assertEquals(Arrays.asList("a", "b"), new Path("::", "a::b").getParts());
+        assertEquals(Arrays.asList("abc"), new Path('.', "abc").getParts());
+        assertEquals(new Path(Arrays.asList("a", "b")), new Path('.', "a.b"));
+        assertEquals(new Path(Arrays.asList("a", "b")).hashCode(), new Path('.', "a.b").hashCode());
+        assertEquals(12, new Path(".", "list.12").getIndex(1));
+        assertEquals(-1, new Path(".", "list.-1").getIndex(1));
+        assertEquals(-1, new Path(".", "list.99999999999").getIndex(1));
+    }
+
+    @Test
+    public void testTraversal()
+    {
+        MapNode root = MapNode.emptyMap();
+        ListNode list = ListNode.emptyList();
+        list.addNode(MapNode.emptyMap());
+        list.addNode(MapNode.emptyMap());
+        root.set(new Path(".", "a.list"), list);
+        root.set(new Path(".", "a.list.1.value"), new IntNode(5));
+        assertEquals(5, root.get(new Path(".", "a.list.1.value")).getValue());
+        assertEquals(5, ((MapNode)list.get("1")).get("value").getValue());
+        assertNull(root.get(new Path(".", "a.missing.value")));
+        assertEquals(5, root.remove(new Path(".", "A.List.1.Value")).getValue());
+        assertNull(root.get(new Path(".", "a.list.1.value")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidListIndex()
+    {
+        MapNode root = MapNode.emptyMap();
+        root.set("list", ListNode.emptyList());
+        root.get(new Path(".", "list.first"));
+    }
+}
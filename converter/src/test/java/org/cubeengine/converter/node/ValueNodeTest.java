@@ -0,0 +1,56 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.converter.node;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ValueNodeTest
+{
+    @Test
+    public void testCustomValueNode() throws Exception
+    {
+        ValueNode<Object> node = new CustomNode("custom");
+        assertEquals("custom", node.getValue());
+        assertEquals("custom", node.asText());
+    }
+
+    @Test
+    public void testPrimitiveValueNodes() throws Exception
+    {
+        assertEquals(Integer.valueOf(42), new IntNode(42).getValue());
+        assertEquals(42, new IntNode(42).getInt());
+        assertEquals("42", new IntNode(42).asText());
+        assertEquals(Boolean.TRUE, new BooleanNode(true).getValue());
+        assertEquals("text", new StringNode("text").getValue());
+    }
+
+    private static class CustomNode extends ValueNode<Object>
+    {
+        private CustomNode(Object value)
+        {
+            super(value);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of loading or saving many files at once
+ * <p>Entries are indexed in batch order, so a file appearing more than once keeps a result or error per entry.
+ * A failure of one entry does not abort the batch, instead it is reported in {@link #getErrors()}.
+ *
+ * @param <T> the type of the Reflected
+ */
+public class BatchResult<T>
+{
+    private final List<File> files;
+    private final Object[] results;
+    private final Throwable[] errors;
+
+    BatchResult(List<File> files)
+    {
+        this.files = Collections.unmodifiableList(new ArrayList<File>(files));
+        this.results = new Object[files.size()];
+        this.errors = new Throwable[files.size()];
+    }
+
+    void success(int index, T result)
+    {
+        this.results[index] = result;
+    }
+
+    void failure(int index, Throwable t)
+    {
+        this.errors[index] = t;
+    }
+
+    /**
+     * Returns the amount of entries in the batch
+     *
+     * @return the size
+     */
+    public int size()
+    {
+        return this.files.size();
+    }
+
+    /**
+     * Returns the files of the batch in batch order
+     *
+     * @return the files
+     */
+    public List<File> getFiles()
+    {
+        return this.files;
+    }
+
+    /**
+     * Returns the loaded or saved Reflected of an entry
+     *
+     * @param index the index of the entry
+     *
+     * @return the Reflected or null if the entry failed
+     */
+    @SuppressWarnings("unchecked")
+    public T getResult(int index)
+    {
+        return (T)this.results[index];
+    }
+
+    /**
+     * Returns the error of an entry
+     *
+     * @param index the index of the entry
+     *
+     * @return the error or null if the entry succeeded
+     */
+    public Throwable getError(int index)
+    {
+        return this.errors[index];
+    }
+
+    /**
+     * Returns the successfully loaded or saved Reflected in batch order
+     *
+     * @return the results
+     */
+    public List<T> getResults()
+    {
+        List<T> list = new ArrayList<T>();
+        for (int i = 0; i < this.results.length; i++)
+        {
+            if (this.errors[i] == null)
+            {
+                list.add(this.getResult(i));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns the errors by index of the entry
+     *
+     * @return the errors
+     */
+    public Map<Integer, Throwable> getErrors()
+    {
+        Map<Integer, Throwable> map = new LinkedHashMap<Integer, Throwable>();
+        for (int i = 0; i < this.errors.length; i++)
+        {
+            if (this.errors[i] != null)
+            {
+                map.put(i, this.errors[i]);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Returns true if no entry failed
+     *
+     * @return whether the batch was successful
+     */
+    public boolean isSuccessful()
+    {
+        for (Throwable error : this.errors)
+        {
+            if (error != null)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect;
+
+/**
+ * Aggregated footprint estimates of the loaded instances of a Reflected class
+ * <p>This class is thread-safe.
+ *
+ * @see ReflectedFootprint
+ */
+public final class FootprintStats
+{
+    private long count;
+    private long total;
+    private long last;
+    private long max;
+    private Object largestTarget;
+
+    synchronized void record(long size, Object target)
+    {
+        this.count++;
+        this.total += size;
+        this.last = size;
+        if (size >= this.max)
+        {
+            this.max = size;
+            this.largestTarget = target;
+        }
+    }
+
+    /**
+     * Returns the amount of recorded loads
+     *
+     * @return the count
+     */
+    public synchronized long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded estimates
+     *
+     * @return the total size in bytes
+     */
+    public synchronized long getTotal()
+    {
+        return total;
+    }
+
+    /**
+     * Returns the average of all recorded estimates
+     *
+     * @return the average size in bytes
+     */
+    public synchronized long getAverage()
+    {
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * Returns the last recorded estimate
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getLast()
+    {
+        return last;
+    }
+
+    /**
+     * Returns the largest recorded estimate
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * Returns the target the largest estimate was recorded for
+     *
+     * @return the target, e.g. the File, or null
+     */
+    public synchronized Object getLargestTarget()
+    {
+        return largestTarget;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return "FootprintStats{count=" + count + ", average=" + getAverage() + ", max=" + max + ", largest=" + largestTarget + "}";
+    }
+}
@@ -25,15 +25,18 @@ package org.cubeengine.reflect;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.cubeengine.reflect.codec.Codec;
 import org.cubeengine.reflect.exception.InvalidReflectedObjectException;
 import org.cubeengine.reflect.exception.MissingCodecException;
-import org.cubeengine.reflect.util.SectionFactory;
+import org.cubeengine.reflect.exception.ReflectedInstantiationException;
 
 
 /**
@@ -41,15 +44,30 @@ import org.cubeengine.reflect.util.SectionFactory;
  */
 public abstract class Reflected<CodecT extends Codec, SerialType> implements Section
 {
-    private final transient Class<CodecT> defaultCodec = getCodecClass(getClass());
+    /**
+     * The Codec classes of all Reflected implementations, resolved once per class
+     */
+    private static final ClassValue<Class<? extends Codec>> CODEC_CLASSES = new ClassValue<Class<? extends Codec>>()
+    {
+        @Override
+        protected Class<? extends Codec> computeValue(Class<?> type)
+        {
+            return findCodecClass(type);
+        }
+    };
+
+    private transient CodecT codec;
     private transient Reflector reflector;
     private transient SerialType serialType;
     private transient Reflected defaults = this;
-
-    private transient ReflectedConverterManager manager = new ReflectedConverterManager(this);
+    /**
+     * The ConverterManager of this Reflected, only created when requested
+     */
+    private transient volatile ReflectedConverterManager converterManager;
 
     /**
      * Saves the fields that got inherited from the parent-reflected
+     * <p>Only allocated for child-reflected
      */
     private transient Set<Field> inheritedFields;
 
@@ -59,32 +77,17 @@ public abstract class Reflected<CodecT extends Codec, SerialType> implements Sec
      *
      * @param reflector the Reflector
      */
+    @SuppressWarnings("unchecked")
     public final void init(Reflector reflector)
     {
         this.reflector = reflector;
-        initializeSections(this, reflector.getDefaultConverterManager().getConverterByClass(SectionConverter.class));
-        this.onInit();
-    }
-
-    private void initializeSections(Section section, SectionConverter sectionConverter)
-    {
-        try
+        Class<? extends Codec> codecClass = getCodecClass(getClass());
+        if (codecClass != null)
         {
-            for (Field field : sectionConverter.getReflectedFields(section.getClass()))
-            {
-                if (Section.class.isAssignableFrom(field.getType()) && field.get(section) == null &&
-                    !NullSection.class.isAssignableFrom(field.getType()))
-                {
-                    @SuppressWarnings("unchecked")
-                    Class<? extends Section> sectionClass = (Class<? extends Section>)field.getType();
-                    Section createdSection = SectionFactory.newSectionInstance(sectionClass, null);
-                    field.set(section, createdSection);
-                    this.initializeSections(createdSection, sectionConverter);
-                }
-            }
+            this.codec = (CodecT)reflector.getCodecManager().getCodec(codecClass);
         }
-        catch (IllegalAccessException ignored)
-        {}
+        reflector.getDefaultConverterManager().getConverterByClass(SectionConverter.class).initializeSections(this);
+        this.onInit();
     }
 
     /**
@@ -126,7 +129,18 @@ public abstract class Reflected<CodecT extends Codec, SerialType> implements Sec
             throw new IllegalArgumentException("Parent and child-reflected have to be the same type of reflected!");
         }
         this.defaults = reflected;
-        this.inheritedFields = new HashSet<Field>();
+        this.inheritedFields = newFieldSet();
+    }
+
+    /**
+     * Creates a set of inherited fields
+     * <p>Fields may be marked concurrently while a Section is converted in parallel
+     *
+     * @return the set
+     */
+    private static Set<Field> newFieldSet()
+    {
+        return Collections.newSetFromMap(new ConcurrentHashMap<Field, Boolean>());
     }
 
     /**
@@ -213,6 +227,19 @@ public abstract class Reflected<CodecT extends Codec, SerialType> implements Sec
         }
     }
 
+    /**
+     * Returns the Codec class of a Reflected implementation
+     * <p>The class is resolved only once per Reflected implementation
+     *
+     * @param clazz the class of the reflected
+     *
+     * @return the Codec class or null if none is set
+     */
+    public static Class<? extends Codec> getCodecClass(Class<? extends Reflected> clazz)
+    {
+        return CODEC_CLASSES.get(clazz);
+    }
+
     /**
      * Tries to get the CodecClazz of a Reflected implementation.
      *
@@ -221,7 +248,7 @@ public abstract class Reflected<CodecT extends Codec, SerialType> implements Sec
      * @return the Codec
      */
     @SuppressWarnings("unchecked")
-    private Class<CodecT> getCodecClass(Class clazz)
+    private static Class<? extends Codec> findCodecClass(Class clazz)
     {
         Type genericSuperclass = clazz;
         try
@@ -242,7 +269,7 @@ public abstract class Reflected<CodecT extends Codec, SerialType> implements Sec
                     // check if it is codec
                     if (gType instanceof Class && Codec.class.isAssignableFrom((Class<?>)gType))
                     {
-                        return (Class<CodecT>)gType;
+                        return (Class<? extends Codec>)gType;
                     }
                     genericSuperclass = ((ParameterizedType)genericSuperclass).getRawType();
                 }
@@ -274,6 +301,102 @@ public abstract class Reflected<CodecT extends Codec, SerialType> implements Sec
      */
     public abstract void save(SerialType target);
 
+    /**
+     * Asynchronously saves the Reflected into its default SerialType
+     *
+     * @return a future completed after saving
+     *
+     * @see #saveAsync(Object)
+     */
+    public final CompletableFuture<Void> saveAsync()
+    {
+        return this.saveAsync(this.serialType);
+    }
+
+    /**
+     * Asynchronously saves this Reflected into the target using the executor of the Reflector
+     * <p>Loads and saves of the same target never interleave and run in the order they were requested
+     *
+     * @param target the target to save to
+     *
+     * @return a future completed after saving
+     */
+    public final CompletableFuture<Void> saveAsync(final SerialType target)
+    {
+        return this.reflector.submit(target == null ? this : target, new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                save(target);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Captures the current state of this Reflected and asynchronously saves it into the default SerialType
+     * <p>Only capturing the state happens on the calling thread, converting and writing happens on the
+     * executor of the Reflector. Changes made after this method returned are not saved.
+     * <p>{@link #onSave()} and {@link #onSaved(Object)} get called on the snapshot
+     *
+     * @return a future completed after saving
+     *
+     * @see #snapshot()
+     */
+    public final CompletableFuture<Void> saveSnapshotAsync()
+    {
+        Reflected<CodecT, SerialType> snapshot = this.snapshot();
+        return snapshot.saveAsync();
+    }
+
+    /**
+     * Returns a copy of this Reflected sharing its target, default and codec
+     * <p>Sections, arrays, dates, collections and maps get copied, all other field values are shared with this
+     * Reflected.
+     *
+     * @param <T> the ReflectedType
+     *
+     * @return the copy
+     */
+    @SuppressWarnings("unchecked")
+    public final <T extends Reflected> T snapshot()
+    {
+        Reflected<CodecT, SerialType> copy;
+        try
+        {
+            copy = this.getClass().getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ReflectedInstantiationException(this.getClass(), e);
+        }
+        copy.reflector = this.reflector;
+        copy.codec = this.codec;
+        copy.serialType = this.serialType;
+        copy.defaults = this.defaults == this ? copy : this.defaults;
+        copy.converterManager = this.converterManager;
+        if (this.inheritedFields != null)
+        {
+            copy.inheritedFields = newFieldSet();
+            copy.inheritedFields.addAll(this.inheritedFields);
+        }
+        SectionConverter converter = this.reflector.getDefaultConverterManager().getConverterByClass(SectionConverter.class);
+        new SectionCopier(converter).copyFields(this, copy);
+        this.onSnapshot(copy);
+        return (T)copy;
+    }
+
+    /**
+     * Gets called after a snapshot of this Reflected was created
+     *
+     * @param snapshot the snapshot
+     */
+    void onSnapshot(Reflected snapshot)
+    {
+        // implemented by ReflectedFile
+    }
+
     /**
      * Reloads the Reflected from the default SerialType
      * <p>This will only work if the SerialType got set previously
@@ -317,6 +440,48 @@ public abstract class Reflected<CodecT extends Codec, SerialType> implements Sec
      */
     public abstract boolean loadFrom(SerialType source);
 
+    /**
+     * Asynchronously loads the Reflected using the given SerialType and the executor of the Reflector
+     * <p>This will NOT set the SerialType of this Reflected
+     * <p>Loads and saves of the same source never interleave and run in the order they were requested
+     *
+     * @param source the SerialType to load from
+     *
+     * @return a future completed with true if the Reflected was loaded from the given source
+     */
+    public final CompletableFuture<Boolean> loadAsync(final SerialType source)
+    {
+        return this.reflector.submit(source == null ? this : source, new Callable<Boolean>()
+        {
+            @Override
+            public Boolean call() throws Exception
+            {
+                return loadFrom(source);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously reloads the Reflected from the default SerialType
+     *
+     * @param save true if the Reflected should be saved after loading
+     *
+     * @return a future completed with false when the reflected did not get loaded
+     *
+     * @see #reload(boolean)
+     */
+    public final CompletableFuture<Boolean> reloadAsync(final boolean save)
+    {
+        return this.reflector.submit(this.serialType == null ? this : this.serialType, new Callable<Boolean>()
+        {
+            @Override
+            public Boolean call() throws Exception
+            {
+                return reload(save);
+            }
+        });
+    }
+
     /**
      * Returns the Codec
      *
@@ -326,12 +491,12 @@ public abstract class Reflected<CodecT extends Codec, SerialType> implements Sec
      */
     public final CodecT getCodec() throws MissingCodecException
     {
-        if (defaultCodec == null)
+        if (codec == null)
         {
             throw new MissingCodecException(
                 "Reflected has no Codec set! A reflected object needs to have a codec defined in its GenericType");
         }
-        return this.reflector.getCodecManager().getCodec(this.defaultCodec);
+        return this.codec;
     }
 
     /**
@@ -408,7 +573,7 @@ public abstract class Reflected<CodecT extends Codec, SerialType> implements Sec
         {
             return;
         }
-        this.inheritedFields = new HashSet<Field>();
+        this.inheritedFields = newFieldSet();
         SectionConverter sectionConverter = this.getCodec().getConverterManager().getConverterByClass(
             SectionConverter.class);
         try
@@ -475,15 +640,40 @@ public abstract class Reflected<CodecT extends Codec, SerialType> implements Sec
     }
 
     /**
-     * Returns the ConverterManager
+     * Returns the ConverterManager of this Reflected, allowing to register converters for this Reflected only
+     * <p>It is created on the first call and falls back to the ConverterManager of the Codec. Until then
+     * conversions resolve all converters from the Codec directly.
      *
      * @return the ConverterManager
      */
     public final ReflectedConverterManager getConverterManager()
     {
+        ReflectedConverterManager manager = this.converterManager;
+        if (manager == null)
+        {
+            synchronized (this)
+            {
+                manager = this.converterManager;
+                if (manager == null)
+                {
+                    manager = new ReflectedConverterManager(this.getCodec(), this, this.getCodec().getConverterManager());
+                    this.converterManager = manager;
+                }
+            }
+        }
         return manager;
     }
 
+    /**
+     * Returns the ConverterManager of this Reflected if it was requested before
+     *
+     * @return the ConverterManager or null
+     */
+    final ReflectedConverterManager getOwnConverterManager()
+    {
+        return this.converterManager;
+    }
+
     /**
      * Returns true if this Reflected has an other default Reflected than itself
      */
@@ -28,17 +28,78 @@ import org.cubeengine.converter.ConversionException;
 import org.cubeengine.converter.ConverterManager;
 import org.cubeengine.converter.node.MapNode;
 import org.cubeengine.converter.node.Node;
+import org.cubeengine.converter.node.NodeReader;
+import org.cubeengine.converter.node.NodeReader.Token;
+import org.cubeengine.converter.node.NullNode;
+import org.cubeengine.reflect.codec.Codec;
 
+/**
+ * The context of a single conversion of a Reflected
+ * <p>It binds the conversion to the Codec and the Reflected being converted. The Codec creates a new one for
+ * every conversion, so any number of conversions can run concurrently on the same Codec. Unless converters get
+ * registered on it directly it resolves all of them from its fallback, usually the ConverterManager of the Codec,
+ * so creating one is cheap and the lookup caches are shared.
+ */
 public class ReflectedConverterManager extends ConverterManager
 {
+    private final Codec codec;
     private final Reflected reflected;
 
     public ReflectedConverterManager(Reflected reflected)
     {
-        super(null);
+        this(reflected, null);
+    }
+
+    /**
+     * Creates a conversion context for the given Reflected
+     *
+     * @param reflected       the Reflected to convert
+     * @param fallbackManager the ConverterManager to resolve converters from
+     */
+    public ReflectedConverterManager(Reflected reflected, ConverterManager fallbackManager)
+    {
+        this(null, reflected, fallbackManager);
+    }
+
+    /**
+     * Creates a conversion context for the given Reflected resolving converters from the Codec
+     * <p>Converters registered on {@link Reflected#getConverterManager()} take precedence.
+     *
+     * @param codec     the Codec converting
+     * @param reflected the Reflected to convert
+     */
+    public ReflectedConverterManager(Codec codec, Reflected reflected)
+    {
+        this(codec, reflected, fallbackFor(codec, reflected));
+    }
+
+    ReflectedConverterManager(Codec codec, Reflected reflected, ConverterManager fallbackManager)
+    {
+        super(fallbackManager);
+        this.codec = codec;
         this.reflected = reflected;
     }
 
+    private static ConverterManager fallbackFor(Codec codec, Reflected reflected)
+    {
+        ReflectedConverterManager own = reflected == null ? null : reflected.getOwnConverterManager();
+        if (own != null && own.getCodec() == codec)
+        {
+            return own;
+        }
+        return codec.getConverterManager();
+    }
+
+    /**
+     * Returns the Codec converting
+     *
+     * @return the Codec or null if not created by a Codec
+     */
+    public Codec getCodec()
+    {
+        return codec;
+    }
+
     /**
      * Returns the Reflected owning this ConverterManager
      *
@@ -49,7 +110,6 @@ public class ReflectedConverterManager extends ConverterManager
         return reflected;
     }
 
-
     public void fillReflected(MapNode node, Reflected reflected) throws ConversionException
     {
         if (reflected.isChild())
@@ -57,7 +117,41 @@ public class ReflectedConverterManager extends ConverterManager
             node.inheritFrom(convertReflected(reflected.getDefault()));
         }
 
-        Object converted = this.convertFromNode(node, reflected.getClass());
+        this.copyFields(this.convertFromNode(node, reflected.getClass()), reflected);
+    }
+
+    /**
+     * Fills the Reflected with the values read from given NodeReader
+     * <p>Inherited values cannot be detected while streaming, so a child Reflected is always read into a MapNode
+     * first and filled like in {@link #fillReflected(MapNode, Reflected)}.
+     *
+     * @param reader    the reader
+     * @param reflected the Reflected to fill
+     */
+    public void fillReflected(NodeReader reader, Reflected reflected) throws ConversionException
+    {
+        reader.setCaseSensitiveKeys(this.isCaseSensitiveKeys());
+        reader.setKeyPool(this.getKeyPool());
+        if (reflected.isChild())
+        {
+            Node node = reader.peek() == Token.END_DOCUMENT ? NullNode.emptyNode() : reader.readNode();
+            if (node instanceof NullNode)
+            {
+                node = this.newMapNode();
+            }
+            else if (!(node instanceof MapNode))
+            {
+                throw ConversionException.of(this, node, "Cannot convert to Section! Node is not a MapNode!");
+            }
+            this.fillReflected((MapNode)node, reflected);
+            return;
+        }
+        SectionConverter converter = getConverterByClass(SectionConverter.class);
+        this.copyFields(converter.fromReader(reader, reflected.getClass(), this), reflected);
+    }
+
+    private void copyFields(Object converted, Reflected reflected)
+    {
         for (Field field : getConverterByClass(SectionConverter.class).getReflectedFields(reflected.getClass()))
         {
             try
@@ -24,8 +24,15 @@ package org.cubeengine.reflect;
 
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
+import java.util.zip.CRC32;
 
 import org.cubeengine.reflect.codec.FileCodec;
 import org.cubeengine.reflect.exception.InvalidReflectedObjectException;
@@ -40,6 +47,16 @@ public abstract class ReflectedFile<C extends FileCodec<I, O>, I extends Closeab
 {
     private static final String[] EMPTY = new String[0];
 
+    /**
+     * The state of the file last loaded from or saved into
+     */
+    private final transient AtomicReference<FileState> fileState = new AtomicReference<FileState>();
+    /**
+     * The Reflected holding the file state, snapshots use the one of their original so saving a snapshot counts
+     * as saving the original. Only set before the snapshot is published.
+     */
+    private transient ReflectedFile<?, ?, ?> stateHolder = this;
+
     public final void save(File target)
     {
         if (target == null)
@@ -71,6 +88,11 @@ public abstract class ReflectedFile<C extends FileCodec<I, O>, I extends Closeab
                 }
             }
         }
+        if (target.equals(this.getTarget()))
+        {
+            // our own changes do not require a reload
+            this.fileState().set(FileState.of(target, this.useContentChecksum()));
+        }
     }
 
     /**
@@ -90,7 +112,10 @@ public abstract class ReflectedFile<C extends FileCodec<I, O>, I extends Closeab
         {
             throw new IllegalArgumentException("The file must not be null in order to load the reflected!");
         }
-        if (source.exists())
+        // read the state before loading so changes while loading are detected on the next check
+        FileState state = FileState.of(source, this.useContentChecksum());
+        this.fileState().set(state);
+        if (state.exists)
         {
             I in = null;
             try
@@ -118,6 +143,10 @@ public abstract class ReflectedFile<C extends FileCodec<I, O>, I extends Closeab
                 }
             }
             this.onLoaded(source);
+            if (this.getReflector() != null && this.getReflector().isFootprintTracking())
+            {
+                this.getReflector().recordFootprint(this);
+            }
             return true;
         }
         LOGGER.log(Level.INFO, "Could not load reflected from file! Using default...");
@@ -139,6 +168,80 @@ public abstract class ReflectedFile<C extends FileCodec<I, O>, I extends Closeab
         this.getCodec().loadReflected(this, is);
     }
 
+    /**
+     * Reloads the Reflected from its file if the file changed since it was last loaded or saved
+     *
+     * @return true if the Reflected got reloaded
+     *
+     * @see #hasChanged()
+     */
+    public final boolean reloadIfChanged()
+    {
+        if (!this.hasChanged())
+        {
+            return false;
+        }
+        this.reload();
+        return true;
+    }
+
+    /**
+     * Returns whether the file changed since this Reflected was last loaded from or saved into it
+     * <p>A file is unchanged if its modification time and size did not change.
+     * When {@link #useContentChecksum()} is true a file with a different modification time or size
+     * is still unchanged if its content did not change.
+     *
+     * @return true if the file changed or the Reflected was not loaded from it yet
+     */
+    public final boolean hasChanged()
+    {
+        File file = this.getFile();
+        FileState state = this.fileState().get();
+        if (file == null || state == null || !file.equals(state.file))
+        {
+            return true;
+        }
+        FileState current = FileState.of(file, false);
+        if (state.sameAttributes(current))
+        {
+            return false;
+        }
+        if (state.checksum != null && current.exists)
+        {
+            current = FileState.of(file, true);
+            if (state.checksum.equals(current.checksum))
+            {
+                // only touched
+                this.fileState().compareAndSet(state, current);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private AtomicReference<FileState> fileState()
+    {
+        return this.stateHolder.fileState;
+    }
+
+    @Override
+    void onSnapshot(Reflected snapshot)
+    {
+        ((ReflectedFile<?, ?, ?>)snapshot).stateHolder = this.stateHolder;
+    }
+
+    /**
+     * Returns true if a checksum of the file content should be used to detect changes
+     * <p>Computing the checksum reads the entire file
+     * <p>override to change
+     *
+     * @return whether to compare checksums of the content
+     */
+    public boolean useContentChecksum()
+    {
+        return false;
+    }
+
     /**
      * Returns the File
      *
@@ -180,4 +283,70 @@ public abstract class ReflectedFile<C extends FileCodec<I, O>, I extends Closeab
     {
         return EMPTY;
     }
+
+    /**
+     * The modification time, size and optional checksum of a file
+     */
+    private static final class FileState
+    {
+        private final File file;
+        private final boolean exists;
+        private final long lastModified;
+        private final long size;
+        private final Long checksum;
+
+        private FileState(File file, boolean exists, long lastModified, long size, Long checksum)
+        {
+            this.file = file;
+            this.exists = exists;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.checksum = checksum;
+        }
+
+        private static FileState of(File file, boolean checksum)
+        {
+            try
+            {
+                BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+                return new FileState(file, true, attributes.lastModifiedTime().toMillis(), attributes.size(),
+                                     checksum ? checksum(file) : null);
+            }
+            catch (NoSuchFileException e)
+            {
+                return new FileState(file, false, 0, 0, null);
+            }
+            catch (IOException e)
+            {
+                // cannot tell -> always changed
+                return new FileState(file, file.exists(), -1, -1, null);
+            }
+        }
+
+        private static Long checksum(File file) throws IOException
+        {
+            CRC32 crc = new CRC32();
+            InputStream in = new FileInputStream(file);
+            try
+            {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1)
+                {
+                    crc.update(buffer, 0, read);
+                }
+            }
+            finally
+            {
+                in.close();
+            }
+            return crc.getValue();
+        }
+
+        private boolean sameAttributes(FileState other)
+        {
+            return this.exists == other.exists && this.lastModified == other.lastModified && this.size == other.size
+                && this.lastModified != -1;
+        }
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+
+import org.cubeengine.reflect.ReflectedRepository.Weigher;
+
+import static org.cubeengine.converter.node.NodeFootprint.OBJECT_HEADER_SIZE;
+import static org.cubeengine.converter.node.NodeFootprint.REFERENCE_SIZE;
+import static org.cubeengine.converter.node.NodeFootprint.align;
+import static org.cubeengine.converter.node.NodeFootprint.arraySize;
+import static org.cubeengine.converter.node.NodeFootprint.fieldSize;
+import static org.cubeengine.converter.node.NodeFootprint.shallowSize;
+import static org.cubeengine.converter.node.NodeFootprint.stringSize;
+
+/**
+ * Estimates the heap memory retained by a loaded Reflected
+ * <p>The values of the reflected fields are walked like the {@link SectionConverter} does. Sections, Strings, arrays
+ * and the usual collections and maps are estimated from their known layout, any other value by its own fields only.
+ * Objects referenced more than once are counted once. Estimates assume a 64 bit JVM using compressed references.
+ *
+ * @see org.cubeengine.converter.node.NodeFootprint
+ */
+public final class ReflectedFootprint
+{
+    private ReflectedFootprint()
+    {}
+
+    /**
+     * Estimates the memory retained by the values of the Reflected
+     *
+     * @param reflected the Reflected
+     *
+     * @return the estimated size in bytes
+     */
+    public static long estimate(Reflected reflected)
+    {
+        SectionConverter converter = reflected.getReflector().getDefaultConverterManager().getConverterByClass(SectionConverter.class);
+        return estimate(reflected, converter, Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>()));
+    }
+
+    /**
+     * Returns a Weigher weighing a Reflected by its estimated size in bytes
+     *
+     * @param <T> the Reflected type
+     *
+     * @return the Weigher
+     */
+    public static <T extends Reflected> Weigher<T> weigher()
+    {
+        return new Weigher<T>()
+        {
+            @Override
+            public long weigh(T reflected)
+            {
+                return estimate(reflected);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long estimate(Object object, SectionConverter converter, Set<Object> visited)
+    {
+        if (object == null || object instanceof Enum || object instanceof Class || !visited.add(object))
+        {
+            return 0;
+        }
+        if (object instanceof String)
+        {
+            return stringSize((String)object);
+        }
+        Class<?> clazz = object.getClass();
+        if (clazz.isArray())
+        {
+            int length = Array.getLength(object);
+            long size = arraySize(length, fieldSize(clazz.getComponentType()));
+            if (!clazz.getComponentType().isPrimitive())
+            {
+                for (int i = 0; i < length; i++)
+                {
+                    size += estimate(Array.get(object, i), converter, visited);
+                }
+            }
+            return size;
+        }
+        long size = shallowSize(clazz);
+        if (object instanceof Section)
+        {
+            for (Field field : converter.getReflectedFields((Class<? extends Section>)clazz))
+            {
+                if (!field.getType().isPrimitive())
+                {
+                    try
+                    {
+                        size += estimate(field.get(object), converter, visited);
+                    }
+                    catch (IllegalAccessException ignored)
+                    {} // fields are accessible
+                }
+            }
+        }
+        else if (object instanceof Collection)
+        {
+            Collection<?> collection = (Collection<?>)object;
+            size += collectionSize(collection);
+            for (Object element : collection)
+            {
+                size += estimate(element, converter, visited);
+            }
+        }
+        else if (object instanceof Map)
+        {
+            Map<?, ?> map = (Map<?, ?>)object;
+            size += mapSize(map);
+            for (Entry<?, ?> entry : map.entrySet())
+            {
+                size += estimate(entry.getKey(), converter, visited);
+                size += estimate(entry.getValue(), converter, visited);
+            }
+        }
+        return size;
+    }
+
+    private static long collectionSize(Collection<?> collection)
+    {
+        int size = collection.size();
+        if (collection instanceof LinkedList)
+        {
+            return size * objectSize(3, 0);
+        }
+        if (collection instanceof SortedSet)
+        {
+            // backed by a TreeMap
+            return shallowSize(TreeMap.class) + size * objectSize(5, 1);
+        }
+        if (collection instanceof Set)
+        {
+            // backed by a HashMap
+            boolean linked = collection instanceof LinkedHashSet;
+            return shallowSize(linked ? LinkedHashMap.class : HashMap.class) + hashTableSize(size, linked);
+        }
+        // array based
+        return arraySize(size, REFERENCE_SIZE);
+    }
+
+    private static long mapSize(Map<?, ?> map)
+    {
+        if (map instanceof SortedMap)
+        {
+            return map.size() * objectSize(5, 1);
+        }
+        return hashTableSize(map.size(), map instanceof LinkedHashMap);
+    }
+
+    private static long hashTableSize(int size, boolean linked)
+    {
+        int table = Integer.highestOneBit(Math.max(1, (int)(size / 0.75f)) * 2 - 1);
+        return arraySize(table, REFERENCE_SIZE) + size * objectSize(linked ? 5 : 3, 4);
+    }
+
+    private static long objectSize(int references, int primitives)
+    {
+        return align(OBJECT_HEADER_SIZE + references * REFERENCE_SIZE + primitives);
+    }
+}
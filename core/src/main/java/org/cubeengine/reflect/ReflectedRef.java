@@ -0,0 +1,194 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current version of a Reflected
+ * <p>Reloading loads a new instance and publishes it atomically once it is completely loaded, so readers calling
+ * {@link #get()} never see a half-reloaded Reflected and do not need any locking. If reloading fails the previous
+ * version stays published.
+ * <p>Instances obtained from {@link #get()} must not be modified by readers.
+ * <p>Children are only weakly referenced by their parent and stop being reloaded once they are no longer used.
+ *
+ * @param <T> the Reflected type
+ */
+public final class ReflectedRef<T extends Reflected>
+{
+    private final AtomicReference<T> current;
+    private final ReflectedRef<T> parent;
+    private final List<WeakReference<ReflectedRef<T>>> children = new CopyOnWriteArrayList<WeakReference<ReflectedRef<T>>>();
+
+    /**
+     * Creates a holder for a loaded Reflected
+     * <p>Its target has to be set to be able to reload it
+     *
+     * @param reflected the Reflected
+     */
+    public ReflectedRef(T reflected)
+    {
+        this(reflected, null);
+    }
+
+    private ReflectedRef(T reflected, ReflectedRef<T> parent)
+    {
+        if (reflected == null)
+        {
+            throw new IllegalArgumentException("The reflected must not be null!");
+        }
+        this.current = new AtomicReference<T>(reflected);
+        this.parent = parent;
+    }
+
+    /**
+     * Returns the currently published Reflected
+     *
+     * @return the Reflected
+     */
+    public T get()
+    {
+        return this.current.get();
+    }
+
+    /**
+     * Returns the holder of the default Reflected
+     *
+     * @return the parent holder or null if this does not hold a child Reflected
+     */
+    public ReflectedRef<T> getParent()
+    {
+        return this.parent;
+    }
+
+    /**
+     * Reloads the Reflected into a new instance without saving it and publishes it
+     *
+     * @return the published Reflected
+     */
+    public T reload()
+    {
+        return this.reload(false);
+    }
+
+    /**
+     * Reloads the Reflected into a new instance and publishes it
+     * <p>Children loaded by {@link #loadChild(Object)} get reloaded afterwards using the new instance as default.
+     * If reloading a child fails the remaining children still get reloaded and the first failure is thrown
+     * afterwards with all further failures added as suppressed.
+     *
+     * @param save true if the Reflected should be saved after loading
+     *
+     * @return the published Reflected
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T reload(boolean save)
+    {
+        T previous = this.current.get();
+        T reflected = (T)previous.getReflector().create(previous.getClass());
+        reflected.setTarget(previous.getTarget());
+        if (this.parent != null)
+        {
+            reflected.setDefault(this.parent.get());
+        }
+        reflected.reload(save);
+        this.current.set(reflected);
+
+        RuntimeException failure = null;
+        for (WeakReference<ReflectedRef<T>> ref : this.children)
+        {
+            ReflectedRef<T> child = ref.get();
+            if (child == null)
+            {
+                this.children.remove(ref);
+                continue;
+            }
+            try
+            {
+                child.reload(false);
+            }
+            catch (RuntimeException e)
+            {
+                if (failure == null)
+                {
+                    failure = e;
+                }
+                else
+                {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null)
+        {
+            throw failure;
+        }
+        return reflected;
+    }
+
+    /**
+     * Loads a child Reflected with the current Reflected as default
+     * <p>The child gets reloaded whenever this holder reloads until it is removed using
+     * {@link #removeChild(ReflectedRef)} or no longer referenced
+     *
+     * @param source the source of the child
+     *
+     * @return the holder of the child
+     *
+     * @see Reflected#loadChild(Object)
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized ReflectedRef<T> loadChild(Object source)
+    {
+        ReflectedRef<T> child = new ReflectedRef<T>((T)this.current.get().loadChild(source), this);
+        this.children.add(new WeakReference<ReflectedRef<T>>(child));
+        return child;
+    }
+
+    /**
+     * Stops reloading a child when this holder reloads
+     *
+     * @param child the holder of the child
+     *
+     * @return true if the child was loaded by this holder
+     */
+    public boolean removeChild(ReflectedRef<T> child)
+    {
+        for (WeakReference<ReflectedRef<T>> ref : this.children)
+        {
+            ReflectedRef<T> registered = ref.get();
+            if (registered == null || registered == child)
+            {
+                this.children.remove(ref);
+                if (registered != null)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
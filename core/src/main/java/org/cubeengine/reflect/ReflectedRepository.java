@@ -0,0 +1,459 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+
+import static java.util.logging.Level.WARNING;
+import static org.cubeengine.reflect.Reflector.LOGGER;
+
+/**
+ * A bounded cache of {@link ReflectedFile}s by key
+ * <p>Reflected get loaded on demand from the file the {@link Locator} returns for their key. When the total
+ * weight of the cached Reflected exceeds the maximum the least recently used ones get evicted. Reflected marked
+ * as dirty get saved asynchronously when evicted, pinned Reflected are never evicted. The Reflected accessed is
+ * never evicted by that same access, so a Reflected heavier than the maximum weight stays cached until another
+ * one is accessed.
+ * <p>By default every Reflected weighs 1, so the maximum weight is the maximum amount of cached Reflected.
+ *
+ * @param <K> the key type
+ * @param <T> the Reflected type
+ */
+public class ReflectedRepository<K, T extends ReflectedFile>
+{
+    private final Reflector reflector;
+    private final Class<T> clazz;
+    private final Locator<K> locator;
+    private final Weigher<? super T> weigher;
+    private final long maximumWeight;
+
+    private final LinkedHashMap<K, Entry<K, T>> entries = new LinkedHashMap<K, Entry<K, T>>(16, 0.75f, true);
+    /**
+     * Evicted entries that are still being saved
+     */
+    private final Map<K, Entry<K, T>> saving = new HashMap<K, Entry<K, T>>();
+    private long weight = 0;
+
+    /**
+     * Creates a repository holding at most the given amount of Reflected
+     *
+     * @param reflector   the Reflector to load with
+     * @param clazz       the Reflected class
+     * @param locator     the locator of the files
+     * @param maximumSize the maximum amount of Reflected
+     */
+    public ReflectedRepository(Reflector reflector, Class<T> clazz, Locator<K> locator, long maximumSize)
+    {
+        this(reflector, clazz, locator, maximumSize, null);
+    }
+
+    /**
+     * Creates a repository bounded by the total weight of its Reflected
+     *
+     * @param reflector     the Reflector to load with
+     * @param clazz         the Reflected class
+     * @param locator       the locator of the files
+     * @param maximumWeight the maximum total weight
+     * @param weigher       the weigher or null to weigh every Reflected with 1
+     */
+    public ReflectedRepository(Reflector reflector, Class<T> clazz, Locator<K> locator, long maximumWeight,
+                               Weigher<? super T> weigher)
+    {
+        if (maximumWeight < 0)
+        {
+            throw new IllegalArgumentException("The maximum weight may not be negative!");
+        }
+        this.reflector = reflector;
+        this.clazz = clazz;
+        this.locator = locator;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the Reflected for the key, loading it if it is not cached
+     * <p>The Reflected does not get saved after loading
+     *
+     * @param key the key
+     *
+     * @return the Reflected
+     */
+    public T get(K key)
+    {
+        return this.get(key, false);
+    }
+
+    /**
+     * Returns the Reflected for the key if it is cached
+     *
+     * @param key the key
+     *
+     * @return the Reflected or null
+     */
+    public T getIfPresent(K key)
+    {
+        return this.acquire(key, null, false);
+    }
+
+    /**
+     * Marks the Reflected of the key as changed so it gets saved when evicted
+     * <p>Its weight gets updated as well
+     *
+     * @param key the key
+     */
+    public void markDirty(K key)
+    {
+        List<Entry<K, T>> evicted;
+        synchronized (this)
+        {
+            Entry<K, T> entry = this.entries.get(key);
+            if (entry == null)
+            {
+                return;
+            }
+            entry.dirty = true;
+            this.weight -= entry.weight;
+            entry.weight = this.weigh(entry.reflected);
+            this.weight += entry.weight;
+            evicted = this.evict(entry);
+        }
+        this.writeBack(evicted);
+    }
+
+    /**
+     * Pins the Reflected of the key so it does not get evicted
+     * <p>Pinning the same key multiple times requires to unpin it as often
+     *
+     * @param key the key
+     *
+     * @return the pinned Reflected
+     */
+    public T pin(K key)
+    {
+        return this.get(key, true);
+    }
+
+    /**
+     * Unpins the Reflected of the key
+     *
+     * @param key the key
+     */
+    public void unpin(K key)
+    {
+        List<Entry<K, T>> evicted;
+        synchronized (this)
+        {
+            Entry<K, T> entry = this.entries.get(key);
+            if (entry == null || entry.pins == 0)
+            {
+                return;
+            }
+            entry.pins--;
+            evicted = this.evict(null);
+        }
+        this.writeBack(evicted);
+    }
+
+    /**
+     * Removes the Reflected of the key and saves it if it is dirty
+     *
+     * @param key the key
+     */
+    public void invalidate(K key)
+    {
+        List<Entry<K, T>> evicted = new ArrayList<Entry<K, T>>(1);
+        synchronized (this)
+        {
+            Entry<K, T> entry = this.entries.remove(key);
+            if (entry == null)
+            {
+                return;
+            }
+            this.weight -= entry.weight;
+            if (entry.dirty)
+            {
+                entry.key = key;
+                this.saving.put(key, entry);
+                evicted.add(entry);
+            }
+        }
+        this.writeBack(evicted);
+    }
+
+    /**
+     * Saves all dirty Reflected without evicting them and waits for all saves to complete
+     */
+    public void flush()
+    {
+        List<CompletableFuture<Void>> saves = new ArrayList<CompletableFuture<Void>>();
+        synchronized (this)
+        {
+            for (Entry<K, T> entry : this.entries.values())
+            {
+                if (entry.dirty)
+                {
+                    entry.dirty = false;
+                    saves.add(this.save(entry.reflected));
+                }
+            }
+        }
+        for (CompletableFuture<Void> save : saves)
+        {
+            try
+            {
+                save.join();
+            }
+            catch (CompletionException ignored)
+            {
+                // already logged
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of cached Reflected
+     *
+     * @return the size
+     */
+    public synchronized int size()
+    {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the total weight of the cached Reflected
+     *
+     * @return the weight
+     */
+    public synchronized long getWeight()
+    {
+        return this.weight;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T get(K key, boolean pin)
+    {
+        T reflected = this.acquire(key, null, pin);
+        if (reflected == null)
+        {
+            T loaded = (T)this.reflector.loadShared(this.clazz, this.locator.getFile(key));
+            reflected = this.acquire(key, loaded, pin);
+        }
+        return reflected;
+    }
+
+    /**
+     * Returns the cached Reflected of the key or caches the loaded one. The returned Reflected does not get evicted.
+     *
+     * @param key    the key
+     * @param loaded the loaded Reflected to cache or null
+     * @param pin    whether to pin the Reflected
+     *
+     * @return the Reflected or null if not cached and nothing was loaded
+     */
+    private T acquire(K key, T loaded, boolean pin)
+    {
+        T reflected;
+        List<Entry<K, T>> evicted;
+        synchronized (this)
+        {
+            Entry<K, T> entry = this.entries.get(key);
+            if (entry == null)
+            {
+                // a save might still be running -> keep the newest state
+                entry = this.saving.remove(key);
+                if (entry == null)
+                {
+                    if (loaded == null)
+                    {
+                        return null;
+                    }
+                    entry = new Entry<K, T>(loaded, this.weigh(loaded));
+                }
+                this.add(key, entry);
+            }
+            if (pin)
+            {
+                entry.pins++;
+            }
+            reflected = entry.reflected;
+            evicted = this.evict(entry);
+        }
+        this.writeBack(evicted);
+        return reflected;
+    }
+
+    private void add(K key, Entry<K, T> entry)
+    {
+        entry.key = key;
+        this.entries.put(key, entry);
+        this.weight += entry.weight;
+    }
+
+    private long weigh(T reflected)
+    {
+        return this.weigher == null ? 1 : this.weigher.weigh(reflected);
+    }
+
+    /**
+     * Evicts the least recently used entries until the weight is not exceeded. Must hold the lock.
+     *
+     * @param accessed the entry being accessed which is not evicted or null
+     *
+     * @return the evicted entries to write back
+     */
+    private List<Entry<K, T>> evict(Entry<K, T> accessed)
+    {
+        List<Entry<K, T>> evicted = null;
+        Iterator<Entry<K, T>> it = this.entries.values().iterator();
+        while (this.weight > this.maximumWeight && it.hasNext())
+        {
+            Entry<K, T> entry = it.next();
+            if (entry.pins > 0 || entry == accessed)
+            {
+                continue;
+            }
+            it.remove();
+            this.weight -= entry.weight;
+            if (entry.dirty)
+            {
+                if (evicted == null)
+                {
+                    evicted = new ArrayList<Entry<K, T>>();
+                }
+                this.saving.put(entry.key, entry);
+                evicted.add(entry);
+            }
+        }
+        return evicted;
+    }
+
+    private void writeBack(List<Entry<K, T>> evicted)
+    {
+        if (evicted == null)
+        {
+            return;
+        }
+        for (final Entry<K, T> entry : evicted)
+        {
+            synchronized (this)
+            {
+                entry.dirty = false;
+            }
+            this.save(entry.reflected).whenComplete(new BiConsumer<Void, Throwable>()
+            {
+                @Override
+                public void accept(Void result, Throwable t)
+                {
+                    synchronized (ReflectedRepository.this)
+                    {
+                        if (saving.get(entry.key) == entry)
+                        {
+                            saving.remove(entry.key);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Saves the Reflected ordered after all pending loads and saves of its file
+     *
+     * @param reflected the Reflected to save
+     *
+     * @return a future completed after saving, failures are logged
+     */
+    private CompletableFuture<Void> save(final T reflected)
+    {
+        return ((Reflected<?, ?>)reflected).saveAsync().whenComplete(new BiConsumer<Void, Throwable>()
+        {
+            @Override
+            public void accept(Void result, Throwable t)
+            {
+                if (t != null)
+                {
+                    LOGGER.log(WARNING, "Could not save " + reflected.getFile(), t);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the file of the Reflected for a key
+     *
+     * @param <K> the key type
+     */
+    public interface Locator<K>
+    {
+        /**
+         * Returns the file to load the Reflected of the key from
+         *
+         * @param key the key
+         *
+         * @return the file
+         */
+        File getFile(K key);
+    }
+
+    /**
+     * Calculates the weight of a Reflected
+     *
+     * @param <T> the Reflected type
+     */
+    public interface Weigher<T>
+    {
+        /**
+         * Returns the weight of the Reflected
+         *
+         * @param reflected the Reflected
+         *
+         * @return the weight
+         */
+        long weigh(T reflected);
+    }
+
+    private static final class Entry<K, T>
+    {
+        private final T reflected;
+        private K key;
+        private long weight;
+        private boolean dirty = false;
+        private int pins = 0;
+
+        private Entry(T reflected, long weight)
+        {
+            this.reflected = reflected;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.logging.Level.WARNING;
+import static org.cubeengine.reflect.Reflector.LOGGER;
+
+/**
+ * Watches the files of registered {@link ReflectedFile}s and reloads them when they change
+ * <p>All directories are watched by a single thread using a {@link WatchService}. Events for a file are
+ * coalesced until no new event arrived for the debounce time, then the Reflected is reloaded if
+ * {@link ReflectedFile#hasChanged()}. Events caused by {@link ReflectedFile#save()} do not cause a reload.
+ * <p>Reloads are submitted to the {@link Reflector} of the Reflected with its file as key, so they run after all
+ * loads and saves of that file requested before. Listeners are called on the reloading thread unless an Executor
+ * for them is given, e.g. one running them on the main thread of the application.
+ * <p>The file of a Reflected is determined when registering it.
+ */
+public class ReflectedWatcher implements Closeable
+{
+    private final WatchService watchService;
+    private final long debounce;
+    private final Executor listenerExecutor;
+
+    private final Map<Path, Set<Registration>> registrations = new ConcurrentHashMap<Path, Set<Registration>>();
+    private final Map<Path, WatchKey> directories = new HashMap<Path, WatchKey>();
+    /**
+     * File -> time to reload at. Only accessed by the watching thread
+     */
+    private final Map<Path, Long> pending = new HashMap<Path, Long>();
+
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a watcher reloading after 100 milliseconds without changes
+     *
+     * @throws IOException when the WatchService could not be created
+     */
+    public ReflectedWatcher() throws IOException
+    {
+        this(100, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a watcher
+     *
+     * @param debounce the time without new events before reloading
+     * @param unit     the unit of the debounce time
+     *
+     * @throws IOException when the WatchService could not be created
+     */
+    public ReflectedWatcher(long debounce, TimeUnit unit) throws IOException
+    {
+        this(debounce, unit, null);
+    }
+
+    /**
+     * Creates a watcher calling its listeners on given Executor
+     *
+     * @param debounce         the time without new events before reloading
+     * @param unit             the unit of the debounce time
+     * @param listenerExecutor the Executor to call listeners on or null to call them on the reloading thread
+     *
+     * @throws IOException when the WatchService could not be created
+     */
+    public ReflectedWatcher(long debounce, TimeUnit unit, Executor listenerExecutor) throws IOException
+    {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.debounce = unit.toMillis(debounce);
+        this.listenerExecutor = listenerExecutor;
+        this.thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                watch();
+            }
+        }, "ReflecT Watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Registers a Reflected to reload when its file changes
+     *
+     * @param reflected the Reflected
+     */
+    public void register(ReflectedFile<?, ?, ?> reflected)
+    {
+        this.register(reflected, null);
+    }
+
+    /**
+     * Registers a Reflected to reload when its file changes
+     * <p>Registering a Reflected again replaces its listener
+     *
+     * @param reflected the Reflected
+     * @param listener  the listener to call after reloading or null
+     */
+    public synchronized void register(ReflectedFile<?, ?, ?> reflected, Listener listener)
+    {
+        if (!running)
+        {
+            throw new IllegalStateException("The watcher is closed!");
+        }
+        Path file = pathOf(reflected);
+        Path directory = file.getParent();
+        if (!this.directories.containsKey(directory))
+        {
+            try
+            {
+                this.directories.put(directory, directory.register(this.watchService, ENTRY_CREATE, ENTRY_MODIFY));
+            }
+            catch (IOException e)
+            {
+                throw new IllegalArgumentException("Could not watch the directory of the reflected file!", e);
+            }
+        }
+        Set<Registration> set = this.registrations.get(file);
+        if (set == null)
+        {
+            set = new CopyOnWriteArraySet<Registration>();
+            this.registrations.put(file, set);
+        }
+        Registration registration = new Registration(reflected, listener, this.listenerExecutor);
+        // equal to the previous registration of the Reflected
+        set.remove(registration);
+        set.add(registration);
+    }
+
+    /**
+     * Stops watching the file of a Reflected
+     *
+     * @param reflected the Reflected
+     */
+    public synchronized void unregister(ReflectedFile<?, ?, ?> reflected)
+    {
+        Path file = pathOf(reflected);
+        Set<Registration> set = this.registrations.get(file);
+        if (set == null)
+        {
+            return;
+        }
+        set.remove(new Registration(reflected, null, null));
+        if (!set.isEmpty())
+        {
+            return;
+        }
+        this.registrations.remove(file);
+        Path directory = file.getParent();
+        for (Path registered : this.registrations.keySet())
+        {
+            if (directory.equals(registered.getParent()))
+            {
+                return;
+            }
+        }
+        WatchKey key = this.directories.remove(directory);
+        if (key != null)
+        {
+            key.cancel();
+        }
+    }
+
+    /**
+     * Stops watching and discards pending reloads
+     */
+    @Override
+    public void close() throws IOException
+    {
+        this.running = false;
+        this.watchService.close();
+    }
+
+    private static Path pathOf(ReflectedFile<?, ?, ?> reflected)
+    {
+        File file = reflected.getFile();
+        if (file == null)
+        {
+            throw new IllegalArgumentException("The reflected has no file to watch!");
+        }
+        return file.getAbsoluteFile().toPath().normalize();
+    }
+
+    private void watch()
+    {
+        try
+        {
+            while (running)
+            {
+                WatchKey key;
+                if (this.pending.isEmpty())
+                {
+                    key = this.watchService.take();
+                }
+                else
+                {
+                    long wait = nextDeadline() - System.currentTimeMillis();
+                    key = wait > 0 ? this.watchService.poll(wait, TimeUnit.MILLISECONDS) : this.watchService.poll();
+                }
+                if (key != null)
+                {
+                    this.collect(key);
+                }
+                this.reloadDue();
+            }
+        }
+        catch (ClosedWatchServiceException ignored)
+        {}
+        catch (InterruptedException ignored)
+        {}
+    }
+
+    private long nextDeadline()
+    {
+        long next = Long.MAX_VALUE;
+        for (Long deadline : this.pending.values())
+        {
+            next = Math.min(next, deadline);
+        }
+        return next;
+    }
+
+    private void collect(WatchKey key)
+    {
+        Path directory = (Path)key.watchable();
+        long deadline = System.currentTimeMillis() + this.debounce;
+        for (WatchEvent<?> event : key.pollEvents())
+        {
+            if (event.kind() == OVERFLOW)
+            {
+                // events got lost -> check every file in the directory
+                for (Path file : this.registrations.keySet())
+                {
+                    if (directory.equals(file.getParent()))
+                    {
+                        this.pending.put(file, deadline);
+                    }
+                }
+                continue;
+            }
+            Path file = directory.resolve((Path)event.context());
+            if (this.registrations.containsKey(file))
+            {
+                this.pending.put(file, deadline);
+            }
+        }
+        key.reset();
+    }
+
+    private void reloadDue()
+    {
+        long now = System.currentTimeMillis();
+        Iterator<Entry<Path, Long>> it = this.pending.entrySet().iterator();
+        while (it.hasNext())
+        {
+            Entry<Path, Long> entry = it.next();
+            if (entry.getValue() > now)
+            {
+                continue;
+            }
+            it.remove();
+            Set<Registration> set = this.registrations.get(entry.getKey());
+            if (set == null)
+            {
+                continue;
+            }
+            for (Registration registration : set)
+            {
+                registration.submit();
+            }
+        }
+    }
+
+    /**
+     * A listener getting notified after a watched Reflected was reloaded
+     */
+    public interface Listener
+    {
+        /**
+         * Gets called after the Reflected got reloaded
+         *
+         * @param reflected the reloaded Reflected
+         */
+        void onReload(ReflectedFile<?, ?, ?> reflected);
+    }
+
+    private static final class Registration implements Callable<Void>, Runnable
+    {
+        private final ReflectedFile<?, ?, ?> reflected;
+        private final Listener listener;
+        private final Executor listenerExecutor;
+
+        private Registration(ReflectedFile<?, ?, ?> reflected, Listener listener, Executor listenerExecutor)
+        {
+            this.reflected = reflected;
+            this.listener = listener;
+            this.listenerExecutor = listenerExecutor;
+        }
+
+        private void submit()
+        {
+            try
+            {
+                this.reflected.getReflector().submit(this.reflected.getFile(), this);
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.log(WARNING, "Could not reload " + this.reflected.getFile(), e);
+            }
+        }
+
+        @Override
+        public Void call()
+        {
+            try
+            {
+                if (this.reflected.reloadIfChanged() && this.listener != null)
+                {
+                    if (this.listenerExecutor == null)
+                    {
+                        this.run();
+                    }
+                    else
+                    {
+                        this.listenerExecutor.execute(this);
+                    }
+                }
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.log(WARNING, "Could not reload " + this.reflected.getFile(), e);
+            }
+            return null;
+        }
+
+        /**
+         * Calls the listener
+         */
+        @Override
+        public void run()
+        {
+            try
+            {
+                this.listener.onReload(this.reflected);
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.log(WARNING, "Listener failed after reloading " + this.reflected.getFile(), e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            return o instanceof Registration && ((Registration)o).reflected == this.reflected;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode(this.reflected);
+        }
+    }
+}
@@ -22,20 +22,72 @@
  */
 package org.cubeengine.reflect;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.Reader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
 
 import org.cubeengine.converter.ConverterManager;
+import org.cubeengine.reflect.codec.Codec;
 import org.cubeengine.reflect.codec.CodecManager;
+import org.cubeengine.reflect.codec.FileCodec;
+import org.cubeengine.reflect.exception.MissingCodecException;
 import org.cubeengine.reflect.exception.ReflectedInstantiationException;
+import org.cubeengine.reflect.util.OrderedExecutor;
+
+import static java.util.logging.Level.WARNING;
 
 /**
  * This Class creates new Reflected Objects and provides them with a CodecManger containing the Converters
+ * <p>A Reflector may be shared by any number of threads. Loading, saving and creating Reflected of any type is
+ * safe concurrently as long as a single Reflected instance is not modified by several threads at once.
  */
 public class Reflector
 {
     public static final Logger LOGGER = Logger.getLogger("ReflecT");
-    private CodecManager codecManager = new CodecManager(this);
+    private final CodecManager codecManager = new CodecManager(this);
+    private volatile OrderedExecutor executor;
+    /**
+     * The executor created by this Reflector if none was set
+     */
+    private ExecutorService defaultExecutor;
+    private final ConcurrentMap<List<Object>, CompletableFuture<Object>> loading = new ConcurrentHashMap<List<Object>, CompletableFuture<Object>>();
+    /**
+     * The keys of the shared loads running on the current thread
+     */
+    private final ThreadLocal<Set<List<Object>>> loadingHere = new ThreadLocal<Set<List<Object>>>()
+    {
+        @Override
+        protected Set<List<Object>> initialValue()
+        {
+            return new HashSet<List<Object>>();
+        }
+    };
+    private final ConcurrentMap<Class<? extends Reflected>, FootprintStats> footprints = new ConcurrentHashMap<Class<? extends Reflected>, FootprintStats>();
+    private volatile boolean footprintTracking = false;
 
     /**
      * Loads the reflected from given source and optionally saves it afterwards
@@ -83,6 +135,529 @@ public class Reflector
         return reflected;
     }
 
+    /**
+     * Loads the reflected from given source without saving it
+     * <p>Concurrent calls for the same class and source share a single load: only the first caller reads the source,
+     * all others wait for it and get the same instance, or the same exception if loading failed.
+     * A call made after a load completed loads again.
+     * <p>A call for the same class and source made by the loading thread itself, e.g. from {@link Reflected#onLoaded},
+     * cannot wait for its own load and loads a separate instance instead.
+     *
+     * @param clazz  the reflected class
+     * @param source the source to load from
+     *
+     * @return the loaded reflected
+     */
+    public <T extends Reflected<?, S>, S> T loadShared(Class<T> clazz, S source)
+    {
+        List<Object> key = Arrays.<Object>asList(clazz, source);
+        Set<List<Object>> loadingHere = this.loadingHere.get();
+        if (loadingHere.contains(key))
+        {
+            return load(clazz, source, false);
+        }
+        CompletableFuture<Object> future = new CompletableFuture<Object>();
+        CompletableFuture<Object> loading = this.loading.putIfAbsent(key, future);
+        if (loading != null)
+        {
+            try
+            {
+                return clazz.cast(loading.join());
+            }
+            catch (CompletionException e)
+            {
+                if (e.getCause() instanceof RuntimeException)
+                {
+                    throw (RuntimeException)e.getCause();
+                }
+                if (e.getCause() instanceof Error)
+                {
+                    throw (Error)e.getCause();
+                }
+                throw e;
+            }
+        }
+        loadingHere.add(key);
+        try
+        {
+            T reflected = load(clazz, source, false);
+            future.complete(reflected);
+            return reflected;
+        }
+        catch (RuntimeException e)
+        {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        catch (Error e)
+        {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        finally
+        {
+            loadingHere.remove(key);
+            this.loading.remove(key, future);
+        }
+    }
+
+    /**
+     * Loads all files in the directory with the file extension of the reflected's codec in parallel
+     * <p>The files do not get saved after loading
+     *
+     * @param clazz     the reflected class
+     * @param directory the directory to load from
+     * @param <T>       the reflected type
+     *
+     * @return the loaded reflected and the errors in file name order
+     */
+    public <T extends ReflectedFile<?, ?, ?>> BatchResult<T> loadAll(Class<T> clazz, Path directory)
+    {
+        return loadAll(clazz, directory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Loads all files in the directory with the file extension of the reflected's codec in parallel
+     * <p>The files do not get saved after loading. Each file is loaded using {@link #submit(Object, Callable)}
+     * with the file as key. If the calling thread gets interrupted loads not started yet are cancelled, this method
+     * still waits for the started ones.
+     *
+     * @param clazz       the reflected class
+     * @param directory   the directory to load from
+     * @param parallelism the maximum amount of files to load at once
+     * @param <T>         the reflected type
+     *
+     * @return the loaded reflected and the errors in file name order
+     */
+    public <T extends ReflectedFile<?, ?, ?>> BatchResult<T> loadAll(final Class<T> clazz, Path directory, int parallelism)
+    {
+        Class<? extends Codec> codecClass = Reflected.getCodecClass(clazz);
+        if (codecClass == null || !FileCodec.class.isAssignableFrom(codecClass))
+        {
+            throw new MissingCodecException("The reflected has no FileCodec set! " + clazz.getName());
+        }
+        String extension = ((FileCodec)this.codecManager.getCodec(codecClass)).getExtension();
+
+        List<File> files = new ArrayList<File>();
+        DirectoryStream<Path> stream = null;
+        try
+        {
+            stream = Files.newDirectoryStream(directory, "*." + extension);
+            for (Path path : stream)
+            {
+                if (Files.isRegularFile(path))
+                {
+                    files.add(path.toFile());
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new IllegalArgumentException("Directory to load from cannot be accessed!", e);
+        }
+        finally
+        {
+            if (stream != null)
+            {
+                try
+                {
+                    stream.close();
+                }
+                catch (IOException e)
+                {
+                    LOGGER.log(WARNING, "Failed to close the directory stream", e);
+                }
+            }
+        }
+        Collections.sort(files);
+
+        List<Callable<T>> tasks = new ArrayList<Callable<T>>(files.size());
+        for (final File file : files)
+        {
+            tasks.add(new Callable<T>()
+            {
+                @Override
+                public T call() throws Exception
+                {
+                    T reflected = create(clazz);
+                    reflected.setFile(file);
+                    reflected.reload(false);
+                    return reflected;
+                }
+            });
+        }
+        return runAll(files, tasks, parallelism);
+    }
+
+    /**
+     * Saves all given reflected into their files in parallel
+     *
+     * @param reflected the reflected to save
+     * @param <T>       the reflected type
+     *
+     * @return the saved reflected and the errors in the order of the collection
+     */
+    public <T extends ReflectedFile<?, ?, ?>> BatchResult<T> saveAll(Collection<T> reflected)
+    {
+        return saveAll(reflected, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Saves all given reflected into their files in parallel
+     * <p>Each reflected is saved using {@link #submit(Object, Callable)} with its file as key, so saves of the same
+     * file run one after another. If the calling thread gets interrupted saves not started yet are cancelled, this
+     * method still waits for the started ones.
+     *
+     * @param reflected   the reflected to save
+     * @param parallelism the maximum amount of files to save at once
+     * @param <T>         the reflected type
+     *
+     * @return the saved reflected and the errors in the order of the collection
+     */
+    public <T extends ReflectedFile<?, ?, ?>> BatchResult<T> saveAll(Collection<T> reflected, int parallelism)
+    {
+        List<File> files = new ArrayList<File>(reflected.size());
+        List<Callable<T>> tasks = new ArrayList<Callable<T>>(reflected.size());
+        for (final T r : reflected)
+        {
+            files.add(r.getFile());
+            tasks.add(new Callable<T>()
+            {
+                @Override
+                public T call() throws Exception
+                {
+                    r.save();
+                    return r;
+                }
+            });
+        }
+        return runAll(files, tasks, parallelism);
+    }
+
+    private <T> BatchResult<T> runAll(List<File> files, List<Callable<T>> tasks, int parallelism)
+    {
+        BatchResult<T> result = new BatchResult<T>(files);
+        final Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        List<BatchTask<T>> submitted = new ArrayList<BatchTask<T>>(tasks.size());
+        boolean interrupted = false;
+        try
+        {
+            for (int i = 0; i < tasks.size(); i++)
+            {
+                permits.acquire();
+                BatchTask<T> task = new BatchTask<T>(tasks.get(i));
+                task.future = this.submit(files.get(i), task);
+                task.future.whenComplete(new BiConsumer<T, Throwable>()
+                {
+                    @Override
+                    public void accept(T reflected, Throwable t)
+                    {
+                        permits.release();
+                    }
+                });
+                submitted.add(task);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            interrupted = true;
+        }
+        for (int i = 0; i < tasks.size(); i++)
+        {
+            BatchTask<T> task = i < submitted.size() ? submitted.get(i) : null;
+            if (task != null && !interrupted)
+            {
+                try
+                {
+                    task.future.get();
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+                catch (ExecutionException ignored)
+                {
+                    // recorded below
+                }
+            }
+            if (task == null || interrupted && task.cancel())
+            {
+                result.failure(i, new CancellationException("The batch got interrupted"));
+                continue;
+            }
+            // started tasks are awaited even if interrupted, their outcome is recorded
+            try
+            {
+                result.success(i, task.future.join());
+            }
+            catch (CompletionException e)
+            {
+                result.failure(i, e.getCause());
+            }
+            catch (CancellationException e)
+            {
+                result.failure(i, e);
+            }
+        }
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    /**
+     * A task of a batch that does not start once the batch got interrupted
+     */
+    private static final class BatchTask<T> implements Callable<T>
+    {
+        private static final int PENDING = 0;
+        private static final int STARTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Callable<T> task;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private CompletableFuture<T> future;
+
+        private BatchTask(Callable<T> task)
+        {
+            this.task = task;
+        }
+
+        @Override
+        public T call() throws Exception
+        {
+            if (!this.state.compareAndSet(PENDING, STARTED))
+            {
+                throw new CancellationException("The batch got interrupted");
+            }
+            return this.task.call();
+        }
+
+        /**
+         * Prevents the task from starting
+         *
+         * @return false if the task already started
+         */
+        private boolean cancel()
+        {
+            return this.state.compareAndSet(PENDING, CANCELLED);
+        }
+    }
+
+    /**
+     * Asynchronously loads the reflected from given source and optionally saves it afterwards
+     *
+     * @param clazz  the reflected class
+     * @param source the source to load from and save to
+     * @param save   whether to save the reflected or not
+     *
+     * @return a future completed with the loaded reflected
+     *
+     * @see #submit(Object, Callable)
+     */
+    public <T extends Reflected<?, S>, S> CompletableFuture<T> loadAsync(final Class<T> clazz, final S source, final boolean save)
+    {
+        return this.submit(source, new Callable<T>()
+        {
+            @Override
+            public T call() throws Exception
+            {
+                return load(clazz, source, save);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously loads the reflected from given source and saves it afterwards
+     *
+     * @param clazz  the reflected class
+     * @param source the source to load from and save to
+     *
+     * @return a future completed with the loaded reflected
+     */
+    public <T extends Reflected<?, S>, S> CompletableFuture<T> loadAsync(Class<T> clazz, S source)
+    {
+        return loadAsync(clazz, source, true);
+    }
+
+    /**
+     * Asynchronously saves the reflected into its target
+     *
+     * @param reflected the reflected to save
+     *
+     * @return a future completed after saving
+     *
+     * @see Reflected#saveAsync()
+     */
+    public CompletableFuture<Void> saveAsync(Reflected<?, ?> reflected)
+    {
+        return reflected.saveAsync();
+    }
+
+    /**
+     * Calls the task on the executor of this Reflector
+     * <p>Tasks with the same key never run concurrently and run in the order they were submitted.
+     * The async methods use the source or target as key, so two loads or saves of one target never interleave.
+     *
+     * @param key  the key, e.g. the source or target
+     * @param task the task
+     * @param <T>  the result type
+     *
+     * @return a future completed with the result of the task
+     */
+    public <T> CompletableFuture<T> submit(Object key, Callable<T> task)
+    {
+        return this.getOrderedExecutor().submit(key, task);
+    }
+
+    /**
+     * Sets the Executor to run asynchronous loads and saves on
+     * <p>Pending tasks keep their order. A default Executor created by this Reflector gets shut down after
+     * running the tasks already handed to it.
+     *
+     * @param executor the executor
+     */
+    public void setExecutor(Executor executor)
+    {
+        ExecutorService previous;
+        synchronized (this)
+        {
+            if (this.executor == null)
+            {
+                this.executor = new OrderedExecutor(executor);
+            }
+            else
+            {
+                this.executor.setExecutor(executor);
+            }
+            previous = this.defaultExecutor;
+            this.defaultExecutor = null;
+        }
+        if (previous != null)
+        {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Shuts down the default Executor created by this Reflector after running all tasks handed to it
+     * <p>An Executor set by {@link #setExecutor(Executor)} is left untouched. Async methods called afterwards
+     * fail with a {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    public void shutdown()
+    {
+        ExecutorService executor;
+        synchronized (this)
+        {
+            executor = this.defaultExecutor;
+        }
+        if (executor != null)
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Returns the Executor running asynchronous loads and saves
+     * <p>Defaults to an Executor using virtual threads if available
+     *
+     * @return the Executor
+     */
+    public Executor getExecutor()
+    {
+        return this.getOrderedExecutor().getExecutor();
+    }
+
+    private OrderedExecutor getOrderedExecutor()
+    {
+        OrderedExecutor ordered = this.executor;
+        if (ordered == null)
+        {
+            synchronized (this)
+            {
+                ordered = this.executor;
+                if (ordered == null)
+                {
+                    this.defaultExecutor = OrderedExecutor.newDefaultExecutor();
+                    ordered = new OrderedExecutor(this.defaultExecutor);
+                    this.executor = ordered;
+                }
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Sets whether the footprint of every Reflected loaded from a file is estimated and recorded
+     * <p>Estimating walks all values of the Reflected, disabled by default
+     *
+     * @param tracking true to record footprints
+     *
+     * @see #getFootprintStats(Class)
+     */
+    public void setFootprintTracking(boolean tracking)
+    {
+        this.footprintTracking = tracking;
+    }
+
+    /**
+     * Returns whether the footprint of every Reflected loaded from a file is recorded
+     *
+     * @return true if footprints are recorded
+     */
+    public boolean isFootprintTracking()
+    {
+        return footprintTracking;
+    }
+
+    /**
+     * Estimates the footprint of the Reflected and records it in the stats of its class
+     *
+     * @param reflected the Reflected
+     *
+     * @return the estimated size in bytes
+     */
+    public long recordFootprint(Reflected reflected)
+    {
+        long size = ReflectedFootprint.estimate(reflected);
+        Class<? extends Reflected> clazz = reflected.getClass();
+        FootprintStats stats = this.footprints.get(clazz);
+        if (stats == null)
+        {
+            stats = new FootprintStats();
+            FootprintStats previous = this.footprints.putIfAbsent(clazz, stats);
+            if (previous != null)
+            {
+                stats = previous;
+            }
+        }
+        stats.record(size, reflected.getTarget());
+        return size;
+    }
+
+    /**
+     * Returns the recorded footprints of a Reflected class
+     *
+     * @param clazz the Reflected class
+     *
+     * @return the stats or null if none were recorded
+     */
+    public FootprintStats getFootprintStats(Class<? extends Reflected> clazz)
+    {
+        return this.footprints.get(clazz);
+    }
+
+    /**
+     * Returns the recorded footprints of all Reflected classes
+     *
+     * @return an unmodifiable view of the stats by class
+     */
+    public Map<Class<? extends Reflected>, FootprintStats> getFootprintStats()
+    {
+        return Collections.unmodifiableMap(this.footprints);
+    }
+
     /**
      * Creates an instance of given Reflected Class.
      * <p>The reflected has to have the default Constructor for this to work!
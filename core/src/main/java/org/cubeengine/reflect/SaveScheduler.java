@@ -0,0 +1,280 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect;
+
+import java.io.Closeable;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.logging.Level.WARNING;
+import static org.cubeengine.reflect.Reflector.LOGGER;
+
+/**
+ * Saves Reflected objects in the background
+ * <p>Instead of saving a Reflected after each change {@link #requestSave(Reflected)} takes a {@link
+ * Reflected#snapshot()} on the calling thread and marks it as pending. Repeated requests within the save window are
+ * coalesced, only the latest snapshot gets saved. The Reflected may keep changing on its owning thread while the
+ * batch is written. A snapshot failing to save stays pending unless a newer one got requested meanwhile.
+ * <p>Pending snapshots get saved in batches and {@link #close()} saves all of them before returning.
+ */
+public class SaveScheduler implements Closeable
+{
+    private final ScheduledExecutorService scheduler;
+    private final Map<Reflected<?, ?>, Reflected<?, ?>> pending = new IdentityHashMap<Reflected<?, ?>, Reflected<?, ?>>();
+    private boolean closed = false;
+
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong saves = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalFlushTime = new AtomicLong();
+    private volatile long lastFlushTime = 0;
+
+    /**
+     * Creates a SaveScheduler saving pending Reflected objects once per window
+     *
+     * @param window the time to collect save requests before saving
+     * @param unit   the unit of the window
+     */
+    public SaveScheduler(long window, TimeUnit unit)
+    {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable r)
+            {
+                Thread thread = new Thread(r, "ReflecT SaveScheduler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.scheduler.scheduleWithFixedDelay(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                flush();
+            }
+        }, window, window, unit);
+    }
+
+    /**
+     * Captures the current state of the Reflected to be saved with the next batch
+     * <p>This has to be called by the thread modifying the Reflected. Changes made afterwards are only saved by
+     * another request.
+     *
+     * @param reflected the Reflected to save
+     */
+    public void requestSave(Reflected<?, ?> reflected)
+    {
+        Reflected<?, ?> snapshot = reflected.snapshot();
+        synchronized (this)
+        {
+            if (this.closed)
+            {
+                throw new IllegalStateException("The SaveScheduler is closed!");
+            }
+            this.pending.put(reflected, snapshot);
+        }
+    }
+
+    /**
+     * Returns whether the Reflected is waiting to be saved
+     *
+     * @param reflected the Reflected
+     *
+     * @return true if a save was requested but not started yet
+     */
+    public synchronized boolean isPending(Reflected<?, ?> reflected)
+    {
+        return this.pending.containsKey(reflected);
+    }
+
+    /**
+     * Saves all pending Reflected objects now and waits for the saves to complete
+     */
+    public void flush()
+    {
+        List<Map.Entry<Reflected<?, ?>, Reflected<?, ?>>> batch;
+        synchronized (this)
+        {
+            if (this.pending.isEmpty())
+            {
+                return;
+            }
+            batch = new ArrayList<Map.Entry<Reflected<?, ?>, Reflected<?, ?>>>(this.pending.size());
+            for (Map.Entry<Reflected<?, ?>, Reflected<?, ?>> entry : this.pending.entrySet())
+            {
+                batch.add(new SimpleImmutableEntry<Reflected<?, ?>, Reflected<?, ?>>(entry));
+            }
+            this.pending.clear();
+        }
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>(batch.size());
+        for (Map.Entry<Reflected<?, ?>, Reflected<?, ?>> entry : batch)
+        {
+            CompletableFuture<Void> future;
+            try
+            {
+                future = entry.getValue().saveAsync();
+            }
+            catch (RuntimeException e)
+            {
+                future = new CompletableFuture<Void>();
+                future.completeExceptionally(e);
+            }
+            futures.add(future);
+        }
+        for (int i = 0; i < futures.size(); i++)
+        {
+            try
+            {
+                futures.get(i).join();
+                this.saves.incrementAndGet();
+            }
+            catch (CompletionException e)
+            {
+                this.failed(batch.get(i), e.getCause());
+            }
+        }
+        long time = System.nanoTime() - start;
+        this.lastFlushTime = time;
+        this.totalFlushTime.addAndGet(time);
+        this.flushes.incrementAndGet();
+    }
+
+    private void failed(Map.Entry<Reflected<?, ?>, Reflected<?, ?>> entry, Throwable t)
+    {
+        this.failures.incrementAndGet();
+        LOGGER.log(WARNING, "Could not save " + entry.getKey().getTarget(), t);
+        synchronized (this)
+        {
+            if (!this.pending.containsKey(entry.getKey()))
+            {
+                // retry with the next batch
+                this.pending.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Stops scheduling and saves all pending Reflected objects
+     * <p>No more saves can be requested afterwards. Snapshots failing to save stay pending.
+     */
+    @Override
+    public void close()
+    {
+        synchronized (this)
+        {
+            this.closed = true;
+        }
+        this.scheduler.shutdown();
+        try
+        {
+            this.scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        this.flush();
+    }
+
+    /**
+     * Returns the amount of Reflected objects waiting to be saved
+     *
+     * @return the queue depth
+     */
+    public synchronized int getQueueDepth()
+    {
+        return this.pending.size();
+    }
+
+    /**
+     * Returns the amount of batches saved so far
+     *
+     * @return the amount of flushes
+     */
+    public long getFlushCount()
+    {
+        return this.flushes.get();
+    }
+
+    /**
+     * Returns the amount of successful saves
+     *
+     * @return the amount of saves
+     */
+    public long getSaveCount()
+    {
+        return this.saves.get();
+    }
+
+    /**
+     * Returns the amount of failed saves
+     *
+     * @return the amount of failures
+     */
+    public long getFailureCount()
+    {
+        return this.failures.get();
+    }
+
+    /**
+     * Returns the time it took to save the last batch
+     *
+     * @param unit the unit of the returned time
+     *
+     * @return the latency of the last flush
+     */
+    public long getLastFlushLatency(TimeUnit unit)
+    {
+        return unit.convert(this.lastFlushTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the average time it took to save a batch
+     *
+     * @param unit the unit of the returned time
+     *
+     * @return the average latency of all flushes
+     */
+    public long getAverageFlushLatency(TimeUnit unit)
+    {
+        long count = this.flushes.get();
+        if (count == 0)
+        {
+            return 0;
+        }
+        return unit.convert(this.totalFlushTime.get() / count, TimeUnit.NANOSECONDS);
+    }
+}
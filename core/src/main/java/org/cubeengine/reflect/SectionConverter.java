@@ -31,12 +31,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.cubeengine.converter.ConversionException;
 import org.cubeengine.converter.ConverterManager;
+import org.cubeengine.converter.ConverterNotFoundException;
 import org.cubeengine.converter.converter.ClassedConverter;
+import org.cubeengine.converter.converter.ThreadSafeConverter;
+import org.cubeengine.converter.node.Comments;
 import org.cubeengine.converter.node.MapNode;
 import org.cubeengine.converter.node.Node;
+import org.cubeengine.converter.node.NodeReader;
+import org.cubeengine.converter.node.NodeReader.Token;
 import org.cubeengine.converter.node.NullNode;
 import org.cubeengine.converter.node.Path;
 import org.cubeengine.reflect.annotations.Comment;
@@ -55,13 +62,17 @@ import static java.util.logging.Level.FINE;
  * A converter for Sections.
  * <p>
  * This converter will cache the Fields of Sections to speed up repeated saving and loading of the same section
+ * <p>
+ * Sections can be read from Nodes or directly from a {@link NodeReader}
+ * <p>
+ * The caches are safe for concurrent use. A concurrent miss may compute an entry twice but only one gets cached.
  */
-public class SectionConverter implements ClassedConverter<Section>
+public class SectionConverter implements ClassedConverter<Section>, ThreadSafeConverter
 {
-    private static final String[] NO_COMMENT = new String[0];
-    private final Map<Field, Path> paths = new HashMap<Field, Path>();
-    private final Map<Class<? extends Section>, Field[]> cachedFields = new HashMap<Class<? extends Section>, Field[]>();
-    private final Map<Field, String[]> comments = new HashMap<Field, String[]>();
+    private final ConcurrentMap<Field, Path> paths = new ConcurrentHashMap<Field, Path>();
+    private final ConcurrentMap<Class<? extends Section>, SectionMetadata> metadata = new ConcurrentHashMap<Class<? extends Section>, SectionMetadata>();
+    private final ConcurrentMap<Field, Comments> comments = new ConcurrentHashMap<Field, Comments>();
+    private final ConcurrentMap<Class<? extends Section>, Binding> bindings = new ConcurrentHashMap<Class<? extends Section>, Binding>();
 
     /**
      * Detects if given field needs to be serialized
@@ -110,7 +121,7 @@ public class SectionConverter implements ClassedConverter<Section>
         }
         ReflectedConverterManager rManager = (ReflectedConverterManager)manager;
 
-        MapNode baseNode = MapNode.emptyMap();
+        MapNode baseNode = manager.newMapNode();
         Class<? extends Section> sectionClass = section.getClass();
 
         for (Field field : this.getReflectedFields(sectionClass))
@@ -171,28 +182,29 @@ public class SectionConverter implements ClassedConverter<Section>
 
     /**
      * Adds a comment to the given Node
+     * <p>The comments of a field are created once and shared by all Nodes created for it
      *
      * @param node  the Node to add the comment to
      * @param field the field possibly having a {@link org.cubeengine.reflect.annotations.Comment} annotation
      */
     private void addComment(Node node, Field field)
     {
-        String[] comment = this.comments.get(field);
+        Comments comment = this.comments.get(field);
         if (comment == null)
         {
             if (field.isAnnotationPresent(Comment.class))
             {
-                comment = field.getAnnotation(Comment.class).value();
+                comment = Comments.of(field.getAnnotation(Comment.class).value());
             }
             else
             {
-                comment = NO_COMMENT;
+                comment = Comments.EMPTY;
             }
             this.comments.put(field, comment);
         }
-        if (comment.length != 0)
+        if (!comment.isEmpty())
         {
-            node.setComments(comment);
+            node.setSharedComments(comment);
         }
     }
 
@@ -233,39 +245,192 @@ public class SectionConverter implements ClassedConverter<Section>
 
         for (Field field : this.getReflectedFields(clazz))
         {
-            try
+            this.bindField(mapNode.get(getPathFor(field)), field, section, rManager);
+        }
+        return section;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void bindField(Node fieldNode, Field field, Section section, ReflectedConverterManager rManager)
+    {
+        try
+        {
+            if (fieldNode == null || fieldNode instanceof NullNode)
             {
-                Path fieldPath = getPathFor(field);
-                Node fieldNode = mapNode.get(fieldPath);
-                Object value;
-                if (fieldNode == null || fieldNode instanceof NullNode)
-                {
-                    LOGGER.log(FINE, fieldPath + " is NULL! Ignoring missing value");
-                    continue; // Take existing field Value
-                }
+                LOGGER.log(FINE, getPathFor(field) + " is NULL! Ignoring missing value");
+                return; // Take existing field Value
+            }
 
-                if (fieldNode.isInherited())
-                {
-                    rManager.getReflected().addInheritedField(field);
-                }
+            if (fieldNode.isInherited())
+            {
+                rManager.getReflected().addInheritedField(field);
+            }
 
-                if (field.isAnnotationPresent(org.cubeengine.reflect.annotations.Converter.class))
-                {
-                    value = rManager.getConverterByClass(field.getAnnotation(
-                        org.cubeengine.reflect.annotations.Converter.class).value()).fromNode(fieldNode, field.getType(), rManager);
-                }
-                else
-                {
-                    value = rManager.convertFromNode(fieldNode, field.getGenericType());
-                }
-                field.set(section, value);
+            Object value;
+            if (field.isAnnotationPresent(org.cubeengine.reflect.annotations.Converter.class))
+            {
+                value = rManager.getConverterByClass(field.getAnnotation(
+                    org.cubeengine.reflect.annotations.Converter.class).value()).fromNode(fieldNode, field.getType(), rManager);
+            }
+            else
+            {
+                value = rManager.convertFromNode(fieldNode, field.getGenericType());
+            }
+            field.set(section, value);
+        }
+        catch (Exception e)
+        {
+            this.handleException(e, section, field);
+        }
+    }
+
+    /**
+     * Reads a Section from given NodeReader
+     * <p>Fields holding a Section are read token by token, all other fields are read into Nodes one at a time and
+     * converted like in {@link #fromNode(Node, Class, ConverterManager)}. Values not mapped to a field are skipped.
+     * <p>Inherited values cannot be detected this way, see {@link ReflectedConverterManager#fillReflected(NodeReader, Reflected)}.
+     *
+     * @param reader  the reader positioned in front of the Section
+     * @param clazz   the sections class
+     * @param manager the ReflectedConverterManager
+     *
+     * @return the Section
+     */
+    public Section fromReader(NodeReader reader, Class<? extends Section> clazz, ConverterManager manager) throws ConversionException
+    {
+        if (!(manager instanceof ReflectedConverterManager))
+        {
+            throw new IllegalArgumentException("provided ConverterManager is not a ReflectedConverterManager");
+        }
+        ReflectedConverterManager rManager = (ReflectedConverterManager)manager;
+
+        Section section = SectionFactory.newSectionInstance(clazz, null);
+        Token token = reader.peek();
+        if (token == Token.START_MAP)
+        {
+            this.readSection(reader, this.getBinding(clazz), section, rManager);
+        }
+        else if (token == Token.VALUE)
+        {
+            reader.next();
+            if (!(reader.getValue() instanceof NullNode))
+            {
+                throw ConversionException.of(this, reader.getValue(), "Cannot convert to Section! Node is not a MapNode!");
+            }
+        }
+        else if (token != Token.END_DOCUMENT)
+        {
+            throw ConversionException.of(this, token, "Cannot convert to Section! Node is not a MapNode!");
+        }
+        return section;
+    }
+
+    private void readSection(NodeReader reader, Binding binding, Section section, ReflectedConverterManager rManager) throws ConversionException
+    {
+        boolean caseSensitive = rManager.isCaseSensitiveKeys();
+        reader.next(); // START_MAP
+        for (Token token = reader.next(); token != Token.END_MAP; token = reader.next())
+        {
+            if (token != Token.KEY)
+            {
+                throw ConversionException.of(this, token, "Expected a key!");
+            }
+            Binding child = binding.children.get(MapNode.normalizeKey(reader.getKey()));
+            if (child == null || caseSensitive && !child.name.equals(reader.getKey()))
+            {
+                reader.skipNode();
+            }
+            else if (child.children.isEmpty())
+            {
+                this.readField(reader, child.field, section, rManager);
+            }
+            else if (child.field == null && reader.peek() == Token.START_MAP)
+            {
+                this.readSection(reader, child, section, rManager);
+            }
+            else
+            {
+                this.bind(reader.readNode(), child, section, rManager);
+            }
+        }
+    }
+
+    private void readField(NodeReader reader, Field field, Section section, ReflectedConverterManager rManager) throws ConversionException
+    {
+        if (Section.class.isAssignableFrom(field.getType()) && reader.peek() == Token.START_MAP
+            && !field.isAnnotationPresent(org.cubeengine.reflect.annotations.Converter.class)
+            && this.isConverterFor(field.getType(), rManager))
+        {
+            try
+            {
+                field.set(section, this.fromReader(reader, field.getType().asSubclass(Section.class), rManager));
             }
             catch (Exception e)
             {
                 this.handleException(e, section, field);
             }
         }
-        return section;
+        else
+        {
+            this.bindField(reader.readNode(), field, section, rManager);
+        }
+    }
+
+    private void bind(Node node, Binding binding, Section section, ReflectedConverterManager rManager)
+    {
+        if (binding.field != null)
+        {
+            this.bindField(node, binding.field, section, rManager);
+        }
+        if (node instanceof MapNode)
+        {
+            for (Binding child : binding.children.values())
+            {
+                this.bind(((MapNode)node).get(child.name), child, section, rManager);
+            }
+        }
+    }
+
+    private boolean isConverterFor(Class<?> clazz, ConverterManager manager)
+    {
+        try
+        {
+            return manager.matchConverter(clazz) == this;
+        }
+        catch (ConverterNotFoundException e)
+        {
+            return false;
+        }
+    }
+
+    private Binding getBinding(Class<? extends Section> clazz)
+    {
+        Binding binding = this.bindings.get(clazz);
+        if (binding != null)
+        {
+            return binding;
+        }
+        binding = new Binding();
+        for (Field field : this.getReflectedFields(clazz))
+        {
+            Binding current = binding;
+            Path path = getPathFor(field);
+            for (int i = 0; i < path.getSize(); i++)
+            {
+                String key = MapNode.normalizeKey(path.getPart(i));
+                Binding child = current.children.get(key);
+                if (child == null)
+                {
+                    child = new Binding();
+                    child.name = path.getPart(i);
+                    current.children.put(key, child);
+                }
+                current = child;
+            }
+            current.field = field;
+        }
+        Binding cached = this.bindings.putIfAbsent(clazz, binding);
+        return cached == null ? binding : cached;
     }
 
     /**
@@ -277,10 +442,22 @@ public class SectionConverter implements ClassedConverter<Section>
      */
     public final Field[] getReflectedFields(Class<? extends Section> clazz)
     {
-        Field[] fields = this.cachedFields.get(clazz);
-        if (fields != null)
+        return this.getMetadata(clazz).getFields();
+    }
+
+    /**
+     * Returns the compiled metadata for given section
+     *
+     * @param clazz the sections class
+     *
+     * @return the metadata
+     */
+    public final SectionMetadata getMetadata(Class<? extends Section> clazz)
+    {
+        SectionMetadata sectionMetadata = this.metadata.get(clazz);
+        if (sectionMetadata != null)
         {
-            return fields;
+            return sectionMetadata;
         }
 
         List<Field> list = new ArrayList<Field>();
@@ -309,8 +486,48 @@ public class SectionConverter implements ClassedConverter<Section>
             current = current.getSuperclass();
         }
 
-        fields = list.toArray(new Field[list.size()]);
-        this.cachedFields.put(clazz, fields);
-        return fields;
+        sectionMetadata = new SectionMetadata(clazz, list.toArray(new Field[list.size()]));
+        SectionMetadata cached = this.metadata.putIfAbsent(clazz, sectionMetadata);
+        return cached == null ? sectionMetadata : cached;
+    }
+
+    /**
+     * Sets a new instance into every field of given section holding a Section that is not set yet
+     * <p>Sections created this way get initialized too
+     *
+     * @param section the section to initialize
+     */
+    public final void initializeSections(Section section)
+    {
+        Field[] fields = this.getMetadata(section.getClass()).getDefaultSectionFields();
+        for (Field field : fields)
+        {
+            try
+            {
+                if (field.get(section) == null)
+                {
+                    @SuppressWarnings("unchecked")
+                    Class<? extends Section> sectionClass = (Class<? extends Section>)field.getType();
+                    Section createdSection = SectionFactory.newSectionInstance(sectionClass, null);
+                    field.set(section, createdSection);
+                    this.initializeSections(createdSection);
+                }
+            }
+            catch (IllegalAccessException ignored)
+            {}
+        }
+    }
+
+    /**
+     * The fields of a Section by the keys of their path
+     */
+    private static final class Binding
+    {
+        /**
+         * The path part as named by the field
+         */
+        private String name;
+        private Field field;
+        private final Map<String, Binding> children = new HashMap<String, Binding>();
     }
 }
@@ -0,0 +1,290 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.cubeengine.reflect.exception.FieldAccessException;
+import org.cubeengine.reflect.exception.InvalidReflectedObjectException;
+import org.cubeengine.reflect.util.SectionFactory;
+
+/**
+ * Copies the reflected fields of Sections
+ * <p>Sections, arrays, dates, collections and maps get copied, all other values are shared with the original.
+ * A field holding a collection or map that can neither be copied into its own class nor into a fallback container
+ * fitting the field is copied into the declared type of the field, if that fails too copying fails.
+ */
+final class SectionCopier
+{
+    private final SectionConverter converter;
+
+    SectionCopier(SectionConverter converter)
+    {
+        this.converter = converter;
+    }
+
+    /**
+     * Copies the reflected fields of a section into another section of the same class
+     *
+     * @param from the section to copy from
+     * @param to   the section to copy into
+     */
+    void copyFields(Section from, Section to)
+    {
+        for (Field field : this.converter.getReflectedFields(from.getClass()))
+        {
+            try
+            {
+                Object value = field.get(from);
+                Object copy = this.copy(value);
+                if ((value instanceof Collection || value instanceof Map) && !field.getType().isInstance(copy))
+                {
+                    // the fallback container does not fit -> copy into the declared type of the field
+                    copy = this.fill(this.newContainer(field, from.getClass()), value);
+                }
+                field.set(to, copy);
+            }
+            catch (IllegalAccessException e)
+            {
+                throw FieldAccessException.of(this.converter.getPathFor(field), from.getClass(), field, e);
+            }
+        }
+    }
+
+    private Object copy(Object value) throws IllegalAccessException
+    {
+        if (value == null)
+        {
+            return null;
+        }
+        if (value instanceof Section)
+        {
+            Section copy = SectionFactory.newSectionInstance(((Section)value).getClass(), null);
+            this.copyFields((Section)value, copy);
+            return copy;
+        }
+        if (value instanceof Collection || value instanceof Map)
+        {
+            return this.fill(this.newContainer(value), value);
+        }
+        if (value.getClass().isArray())
+        {
+            int length = Array.getLength(value);
+            Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+            if (value.getClass().getComponentType().isPrimitive())
+            {
+                System.arraycopy(value, 0, copy, 0, length);
+                return copy;
+            }
+            for (int i = 0; i < length; i++)
+            {
+                Array.set(copy, i, this.copy(Array.get(value, i)));
+            }
+            return copy;
+        }
+        if (value instanceof Date)
+        {
+            return ((Date)value).clone();
+        }
+        return value;
+    }
+
+    /**
+     * Copies the elements or entries of a Collection or Map into an empty container
+     *
+     * @param container the empty container
+     * @param value     the Collection or Map to copy
+     *
+     * @return the container
+     */
+    @SuppressWarnings("unchecked")
+    private Object fill(Object container, Object value) throws IllegalAccessException
+    {
+        if (value instanceof Collection)
+        {
+            for (Object element : (Collection<?>)value)
+            {
+                ((Collection<Object>)container).add(this.copy(element));
+            }
+        }
+        else
+        {
+            for (Entry<?, ?> entry : ((Map<?, ?>)value).entrySet())
+            {
+                ((Map<Object, Object>)container).put(entry.getKey(), this.copy(entry.getValue()));
+            }
+        }
+        return container;
+    }
+
+    /**
+     * Creates an empty container of the declared type of a field
+     *
+     * @param field   the field
+     * @param section the class of the section declaring the field
+     *
+     * @return the empty container
+     *
+     * @throws InvalidReflectedObjectException if the declared type cannot be instantiated
+     */
+    private Object newContainer(Field field, Class<? extends Section> section)
+    {
+        try
+        {
+            Constructor<?> constructor = field.getType().getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw InvalidReflectedObjectException.of("Could not copy the value of a field without sharing it",
+                                                     this.converter.getPathFor(field), section, field, e);
+        }
+    }
+
+    /**
+     * Creates an empty container for the copy of a Collection or Map
+     * <p>Containers of a public class with a public no-args constructor get copied into the same class, sorted
+     * containers need a public constructor taking their comparator instead.
+     * {@link EnumSet}s and {@link EnumMap}s keep their enum type. Other containers, e.g. unmodifiable views or
+     * lists returned by {@link java.util.Arrays#asList(Object[])}, get copied into a TreeSet or TreeMap with the same
+     * comparator if sorted, otherwise into a LinkedHashSet, LinkedHashMap, LinkedList or ArrayList.
+     *
+     * @param container the Collection or Map to copy
+     *
+     * @return the empty container
+     */
+    private Object newContainer(Object container)
+    {
+        if (container instanceof EnumSet)
+        {
+            return newEnumSet((EnumSet<?>)container);
+        }
+        if (container instanceof EnumMap)
+        {
+            return newEnumMap((EnumMap<?, ?>)container);
+        }
+        boolean sorted = true;
+        Comparator<?> comparator = null;
+        if (container instanceof SortedSet)
+        {
+            comparator = ((SortedSet<?>)container).comparator();
+        }
+        else if (container instanceof SortedMap)
+        {
+            comparator = ((SortedMap<?, ?>)container).comparator();
+        }
+        else if (container instanceof PriorityQueue)
+        {
+            comparator = ((PriorityQueue<?>)container).comparator();
+        }
+        else
+        {
+            sorted = false;
+        }
+        Class<?> clazz = container.getClass();
+        if (Modifier.isPublic(clazz.getModifiers()) && !Modifier.isAbstract(clazz.getModifiers()))
+        {
+            try
+            {
+                if (sorted)
+                {
+                    Constructor<?> constructor = clazz.getConstructor(Comparator.class);
+                    return constructor.newInstance(comparator);
+                }
+                Constructor<?> constructor = clazz.getConstructor();
+                return constructor.newInstance();
+            }
+            catch (Exception ignored)
+            {
+                // not instantiable -> fall back
+            }
+        }
+        if (container instanceof SortedSet)
+        {
+            return newTreeSet((SortedSet<?>)container);
+        }
+        if (container instanceof SortedMap)
+        {
+            return newTreeMap((SortedMap<?, ?>)container);
+        }
+        if (container instanceof Set)
+        {
+            return new LinkedHashSet<Object>();
+        }
+        if (container instanceof Map)
+        {
+            return new LinkedHashMap<Object, Object>();
+        }
+        if (container instanceof Queue)
+        {
+            return new LinkedList<Object>();
+        }
+        return new ArrayList<Object>();
+    }
+
+    private static <E extends Enum<E>> EnumSet<E> newEnumSet(EnumSet<E> set)
+    {
+        EnumSet<E> copy = set.clone();
+        copy.clear();
+        return copy;
+    }
+
+    private static <K extends Enum<K>, V> EnumMap<K, V> newEnumMap(EnumMap<K, V> map)
+    {
+        EnumMap<K, V> copy = new EnumMap<K, V>(map);
+        copy.clear();
+        return copy;
+    }
+
+    private static <E> TreeSet<E> newTreeSet(SortedSet<E> set)
+    {
+        return new TreeSet<E>(set.comparator());
+    }
+
+    private static <K, V> TreeMap<K, V> newTreeMap(SortedMap<K, V> map)
+    {
+        return new TreeMap<K, V>(map.comparator());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The compiled metadata of a {@link Section} class
+ * <p>Created once per class by the {@link SectionConverter}
+ */
+public final class SectionMetadata
+{
+    private static final Field[] NO_FIELDS = new Field[0];
+
+    private final Class<? extends Section> sectionClass;
+    private final Field[] fields;
+    private final Field[] defaultSectionFields;
+
+    SectionMetadata(Class<? extends Section> sectionClass, Field[] fields)
+    {
+        this.sectionClass = sectionClass;
+        this.fields = fields;
+
+        List<Field> sectionFields = new ArrayList<Field>();
+        for (Field field : fields)
+        {
+            if (Section.class.isAssignableFrom(field.getType()) && !NullSection.class.isAssignableFrom(field.getType()))
+            {
+                sectionFields.add(field);
+            }
+        }
+        this.defaultSectionFields = sectionFields.isEmpty() ? NO_FIELDS : sectionFields.toArray(new Field[sectionFields.size()]);
+    }
+
+    /**
+     * Returns the class of the Section
+     *
+     * @return the class
+     */
+    public Class<? extends Section> getSectionClass()
+    {
+        return sectionClass;
+    }
+
+    /**
+     * Returns the fields to reflect
+     *
+     * @return the fields
+     */
+    public Field[] getFields()
+    {
+        return fields;
+    }
+
+    /**
+     * Returns the fields holding a Section that gets a default instance when not set
+     *
+     * @return the fields
+     */
+    public Field[] getDefaultSectionFields()
+    {
+        return defaultSectionFields;
+    }
+}
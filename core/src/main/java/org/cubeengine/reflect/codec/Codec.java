@@ -25,7 +25,10 @@ package org.cubeengine.reflect.codec;
 import org.cubeengine.converter.ConversionException;
 import org.cubeengine.converter.ConverterManager;
 import org.cubeengine.converter.node.MapNode;
+import org.cubeengine.converter.node.NodeReader;
+import org.cubeengine.converter.node.TreeNodeReader;
 import org.cubeengine.reflect.Reflected;
+import org.cubeengine.reflect.ReflectedConverterManager;
 import org.cubeengine.reflect.Reflector;
 
 /**
@@ -103,6 +106,21 @@ public abstract class Codec<InputT, OutputT>
      */
     protected abstract MapNode load(InputT in, Reflected reflected) throws ConversionException;
 
+    /**
+     * Creates a {@link NodeReader} reading the <code>Input</code>
+     * <p>By default the Input is loaded into Nodes first. Codecs able to read their format token by token should
+     * override this, so large documents do not need to be held in memory entirely.
+     *
+     * @param in        the Input to read from
+     * @param reflected the Reflected
+     *
+     * @return the NodeReader
+     */
+    protected NodeReader newReader(InputT in, Reflected reflected) throws ConversionException
+    {
+        return new TreeNodeReader(this.load(in, reflected));
+    }
+
 
     /**
      * Converts given Reflected into a MapNode
@@ -115,8 +133,7 @@ public abstract class Codec<InputT, OutputT>
     {
         try
         {
-            reflected.getConverterManager().withFallback(converterManager);
-            return (MapNode)reflected.getConverterManager().convertReflected(reflected);
+            return (MapNode)new ReflectedConverterManager(this, reflected).convertReflected(reflected);
         }
         catch (ConversionException e)
         {
@@ -134,8 +151,7 @@ public abstract class Codec<InputT, OutputT>
     {
         try
         {
-            reflected.getConverterManager().withFallback(this.converterManager);
-            reflected.getConverterManager().fillReflected(node, reflected);
+            new ReflectedConverterManager(this, reflected).fillReflected(node, reflected);
         }
         catch (ConversionException e)
         {
@@ -143,6 +159,20 @@ public abstract class Codec<InputT, OutputT>
         }
     }
 
+    /**
+     * Fills a Reflected with the values read from given NodeReader
+     * <p>A child Reflected is always read into Nodes first, so its inherited values are detected.
+     *
+     * @param reflected the Reflected to fill
+     * @param reader    the NodeReader
+     *
+     * @throws ConversionException when the NodeReader fails to read
+     */
+    public final void fillReflected(Reflected reflected, NodeReader reader) throws ConversionException
+    {
+        new ReflectedConverterManager(this, reflected).fillReflected(reader, reflected);
+    }
+
     /**
      * Returns the Reflector this Codec was initialized with
      *
@@ -22,8 +22,8 @@
  */
 package org.cubeengine.reflect.codec;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.cubeengine.converter.ConverterManager;
 import org.cubeengine.reflect.Reflector;
@@ -33,11 +33,14 @@ import org.cubeengine.reflect.exception.ReflectedInstantiationException;
 
 /**
  * This Class manages Codec for a Reflector
+ * <p>This class is thread-safe. Every Codec class has exactly one registered instance: when several threads request
+ * an unregistered Codec at once each may instantiate one, but only the first registered instance is returned to
+ * all of them and the others are discarded.
  */
 public class CodecManager
 {
     private final ConverterManager defaultManager = ConverterManager.defaultManager();
-    private final Map<Class<? extends Codec>, Codec> codecs = new HashMap<Class<? extends Codec>, Codec>();
+    private final ConcurrentMap<Class<? extends Codec>, Codec> codecs = new ConcurrentHashMap<Class<? extends Codec>, Codec>();
     private final Reflector reflector;
 
     public CodecManager(Reflector reflector)
@@ -64,7 +67,13 @@ public class CodecManager
             try
             {
                 codec = clazz.newInstance();
-                this.registerCodec(codec);
+                codec.init(this.defaultManager.subManager(), this.reflector);
+                C registered = (C)this.codecs.putIfAbsent(clazz, codec);
+                if (registered != null)
+                {
+                    // registered concurrently
+                    codec = registered;
+                }
             }
             catch (InstantiationException e)
             {
@@ -79,14 +88,15 @@ public class CodecManager
     }
 
     /**
-     * Registers a new Codec
+     * Registers a new Codec replacing any Codec of the same class
+     * <p>The Codec is initialized before it gets visible to other threads
      *
      * @param codec the codec to register
      */
     public <C extends Codec> void registerCodec(C codec)
     {
-        this.codecs.put(codec.getClass(), codec);
         codec.init(this.defaultManager.subManager(), this.reflector);
+        this.codecs.put(codec.getClass(), codec);
     }
 
     /**
@@ -42,7 +42,8 @@ public abstract class FileCodec<I, O> extends Codec<I, O>
     {
         try
         {
-            this.fillReflected(reflected, this.load(input, reflected));
+            // child Reflected are read into Nodes by the ReflectedConverterManager to detect inherited values
+            this.fillReflected(reflected, this.newReader(input, reflected));
         }
         catch (ConversionException ex)
         {
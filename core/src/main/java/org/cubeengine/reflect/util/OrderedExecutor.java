@@ -0,0 +1,299 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.logging.Level.WARNING;
+import static org.cubeengine.reflect.Reflector.LOGGER;
+
+/**
+ * Runs tasks on an {@link Executor} while tasks submitted with the same key run one after another
+ * in submission order
+ * <p>Tasks with different keys may run concurrently. When the Executor rejects running the tasks of a key all
+ * tasks pending for that key fail, futures returned by {@link #submit(Object, Callable)} complete exceptionally.
+ */
+public class OrderedExecutor
+{
+    private volatile Executor executor;
+    private final ConcurrentMap<Object, TaskQueue> queues = new ConcurrentHashMap<Object, TaskQueue>();
+
+    /**
+     * Creates an OrderedExecutor
+     *
+     * @param executor the executor to run the tasks on
+     */
+    public OrderedExecutor(Executor executor)
+    {
+        if (executor == null)
+        {
+            throw new IllegalArgumentException("The executor may not be null!");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Returns a new Executor running each task on a virtual thread if available
+     * <p>Otherwise the tasks run on a pool of daemon threads
+     *
+     * @return the Executor
+     */
+    public static ExecutorService newDefaultExecutor()
+    {
+        try
+        {
+            return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (Exception ignored)
+        {
+            // no virtual threads
+        }
+        final AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable r)
+            {
+                Thread thread = new Thread(r, "ReflecT Worker " + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Returns the Executor running the tasks
+     *
+     * @return the Executor
+     */
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Sets the Executor to run the tasks on
+     * <p>Tasks already handed to the previous Executor still run there, the order per key is kept.
+     *
+     * @param executor the executor
+     */
+    public void setExecutor(Executor executor)
+    {
+        if (executor == null)
+        {
+            throw new IllegalArgumentException("The executor may not be null!");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Runs the task after all tasks previously submitted with the same key
+     *
+     * @param key  the key
+     * @param task the task
+     *
+     * @throws RejectedExecutionException when the Executor rejects the task
+     */
+    public void execute(Object key, Runnable task)
+    {
+        if (key == null || task == null)
+        {
+            throw new IllegalArgumentException("The key and the task may not be null!");
+        }
+        while (true)
+        {
+            TaskQueue queue = this.queues.get(key);
+            if (queue == null)
+            {
+                queue = new TaskQueue(key, task);
+                if (this.queues.putIfAbsent(key, queue) == null)
+                {
+                    try
+                    {
+                        this.executor.execute(queue);
+                    }
+                    catch (RuntimeException e)
+                    {
+                        queue.fail(e);
+                        throw e;
+                    }
+                    return;
+                }
+                continue;
+            }
+            if (queue.offer(task))
+            {
+                return;
+            }
+            // queue just finished -> retry
+        }
+    }
+
+    /**
+     * Calls the task after all tasks previously submitted with the same key
+     *
+     * @param key  the key
+     * @param task the task
+     * @param <T>  the result type
+     *
+     * @return a future completed with the result of the task
+     *
+     * @throws RejectedExecutionException when the Executor rejects the task
+     */
+    public <T> CompletableFuture<T> submit(Object key, Callable<T> task)
+    {
+        SubmittedTask<T> submitted = new SubmittedTask<T>(task);
+        this.execute(key, submitted);
+        return submitted.future;
+    }
+
+    private static final class SubmittedTask<T> implements Runnable
+    {
+        private final Callable<T> task;
+        private final CompletableFuture<T> future = new CompletableFuture<T>();
+
+        private SubmittedTask(Callable<T> task)
+        {
+            this.task = task;
+        }
+
+        @Override
+        public void run()
+        {
+            if (this.future.isDone())
+            {
+                return; // cancelled before it got to run
+            }
+            try
+            {
+                this.future.complete(this.task.call());
+            }
+            catch (Throwable t)
+            {
+                this.future.completeExceptionally(t);
+            }
+        }
+    }
+
+    private final class TaskQueue implements Runnable
+    {
+        private final Object key;
+        private final Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+        private Runnable current;
+        private boolean done = false;
+
+        private TaskQueue(Object key, Runnable first)
+        {
+            this.key = key;
+            this.current = first;
+        }
+
+        private synchronized boolean offer(Runnable task)
+        {
+            if (this.done)
+            {
+                return false;
+            }
+            this.tasks.add(task);
+            return true;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                this.current.run();
+            }
+            finally
+            {
+                synchronized (this)
+                {
+                    this.current = this.tasks.poll();
+                    if (this.current == null)
+                    {
+                        this.done = true;
+                        queues.remove(this.key, this);
+                    }
+                }
+                if (this.current != null)
+                {
+                    try
+                    {
+                        executor.execute(this);
+                    }
+                    catch (RuntimeException e)
+                    {
+                        this.fail(e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Removes this queue and fails all of its pending tasks
+         *
+         * @param cause the reason
+         */
+        private void fail(Throwable cause)
+        {
+            List<Runnable> pending = new ArrayList<Runnable>();
+            synchronized (this)
+            {
+                this.done = true;
+                queues.remove(this.key, this);
+                if (this.current != null)
+                {
+                    pending.add(this.current);
+                    this.current = null;
+                }
+                pending.addAll(this.tasks);
+                this.tasks.clear();
+            }
+            for (Runnable task : pending)
+            {
+                if (task instanceof SubmittedTask)
+                {
+                    ((SubmittedTask<?>)task).future.completeExceptionally(cause);
+                }
+                else
+                {
+                    LOGGER.log(WARNING, "Dropped task of " + this.key, cause);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect;
+
+import org.cubeengine.converter.ConversionException;
+import org.cubeengine.converter.ConverterManager;
+import org.cubeengine.converter.converter.SimpleConverter;
+import org.cubeengine.converter.node.Node;
+import org.cubeengine.converter.node.StringNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ReflectedConverterManagerTest
+{
+    private Reflector reflector;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        reflector = new Reflector();
+    }
+
+    @Test
+    public void testWithFallback() throws Exception
+    {
+        ConverterManager defaultManager = reflector.getDefaultConverterManager();
+        ReflectedConverterManager manager = new ReflectedConverterManager(reflector.create(ReflectedTest2.class));
+        assertSame(manager, manager.withFallback(defaultManager));
+        assertEquals("value", manager.convertFromNode(new StringNode("value"), String.class));
+    }
+
+    @Test
+    public void testRegisterConverter() throws Exception
+    {
+        ConverterManager defaultManager = reflector.getDefaultConverterManager();
+        ReflectedConverterManager manager = new ReflectedConverterManager(reflector.create(ReflectedTest2.class),
+                                                                          defaultManager);
+        manager.registerConverter(new MarkerConverter(), Marker.class);
+        assertEquals("marker", manager.convertToNode(new Marker()).asText());
+        assertNull(defaultManager.getConverterByClass(MarkerConverter.class));
+    }
+
+    public static class Marker
+    {
+    }
+
+    public static class MarkerConverter extends SimpleConverter<Marker>
+    {
+        @Override
+        public Node toNode(Marker object) throws ConversionException
+        {
+            return new StringNode("marker");
+        }
+
+        @Override
+        public Marker fromNode(Node node) throws ConversionException
+        {
+            return new Marker();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SectionConverterTest
+{
+    private Reflector reflector;
+    private SectionConverter converter;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        reflector = new Reflector();
+        converter = reflector.getDefaultConverterManager().getConverterByClass(SectionConverter.class);
+    }
+
+    @Test
+    public void testDefaultSectionFields() throws Exception
+    {
+        SectionMetadata metadata = converter.getMetadata(ReflectedTestFile.class);
+        assertSame(metadata, converter.getMetadata(ReflectedTestFile.class));
+        // subSection, quotedStrings, collections, maps, staticSection, externalSection, subsection
+        assertEquals(7, metadata.getDefaultSectionFields().length);
+        assertEquals(0, converter.getMetadata(ExternalSection.class).getDefaultSectionFields().length);
+    }
+
+    @Test
+    public void testInitializeSections() throws Exception
+    {
+        ReflectedTestFile reflected = reflector.create(ReflectedTestFile.class);
+        assertNotNull(reflected.subSection);
+        assertNotNull(reflected.staticSection);
+        assertNotNull(reflected.externalSection);
+        assertNotNull(reflected.subsection);
+        assertNull(reflected.subsections);
+        assertNull(reflected.mappedSections);
+
+        ReflectedTest2 reflected2 = reflector.create(ReflectedTest2.class);
+        assertEquals("aString", reflected2.section.aValue);
+    }
+}
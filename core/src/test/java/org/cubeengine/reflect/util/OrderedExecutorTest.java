@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OrderedExecutorTest
+{
+    private ExecutorService pool;
+    private OrderedExecutor executor;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        pool = Executors.newFixedThreadPool(8);
+        executor = new OrderedExecutor(pool);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testOrderPerKey() throws Exception
+    {
+        final List<Integer> first = new ArrayList<Integer>();
+        final List<Integer> second = new ArrayList<Integer>();
+        CompletableFuture<?> last = null;
+        for (int i = 0; i < 1000; i++)
+        {
+            final int value = i;
+            executor.submit("first", new Callable<Object>()
+            {
+                @Override
+                public Object call() throws Exception
+                {
+                    return first.add(value);
+                }
+            });
+            last = executor.submit("second", new Callable<Object>()
+            {
+                @Override
+                public Object call() throws Exception
+                {
+                    return second.add(value);
+                }
+            });
+        }
+        last.get();
+        executor.submit("first", new Callable<Object>()
+        {
+            @Override
+            public Object call() throws Exception
+            {
+                return null;
+            }
+        }).get();
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(i, (int)first.get(i));
+            assertEquals(i, (int)second.get(i));
+        }
+    }
+
+    @Test
+    public void testRejected() throws Exception
+    {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        OrderedExecutor ordered = new OrderedExecutor(single);
+        ordered.submit("key", new Callable<Object>()
+        {
+            @Override
+            public Object call() throws Exception
+            {
+                blocked.countDown();
+                release.await();
+                return null;
+            }
+        });
+        CompletableFuture<Object> pending = ordered.submit("key", new Callable<Object>()
+        {
+            @Override
+            public Object call() throws Exception
+            {
+                return null;
+            }
+        });
+        blocked.await();
+        single.shutdown(); // dispatching the pending task gets rejected
+        release.countDown();
+        try
+        {
+            pending.get(5, TimeUnit.SECONDS);
+            fail();
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+
+        try
+        {
+            ordered.submit("key", new Callable<Object>()
+            {
+                @Override
+                public Object call() throws Exception
+                {
+                    return null;
+                }
+            });
+            fail();
+        }
+        catch (RejectedExecutionException ignored)
+        {
+            // the key is usable again with another executor
+        }
+        ordered.setExecutor(pool);
+        assertEquals("ok", ordered.submit("key", new Callable<Object>()
+        {
+            @Override
+            public Object call() throws Exception
+            {
+                return "ok";
+            }
+        }).get(5, TimeUnit.SECONDS));
+    }
+}
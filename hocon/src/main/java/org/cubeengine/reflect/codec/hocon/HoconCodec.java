@@ -57,13 +57,13 @@ public class HoconCodec extends ReaderWriterFileCodec
         if (in == null)
         {
             // InputStream null -> reflected was not existent
-            return MapNode.emptyMap();
+            return this.getConverterManager().newMapNode();
         }
         Config config = ConfigFactory.parseReader(in);
         if (config.isEmpty())
         {
             // loadValues null -> reflected exists but was empty
-            return MapNode.emptyMap();
+            return this.getConverterManager().newMapNode();
         }
         return (MapNode)this.getConverterManager().convertToNode(config.root().unwrapped());
     }
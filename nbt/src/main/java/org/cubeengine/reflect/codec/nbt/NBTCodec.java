@@ -103,7 +103,7 @@ public class NBTCodec extends StreamFileCodec
 
     private MapNode toMapNode(CompoundMap tags)
     {
-        MapNode values = MapNode.emptyMap();
+        MapNode values = this.getConverterManager().newMapNode();
         for (Entry<String, Tag<?>> entry : tags.entrySet())
         {
             values.set(entry.getKey(), this.toNode(entry.getValue()));
@@ -125,7 +125,7 @@ public class NBTCodec extends StreamFileCodec
         {
             if (value instanceof CompoundTag)
             {
-                MapNode mapNode = MapNode.emptyMap();
+                MapNode mapNode = this.getConverterManager().newMapNode();
                 this.toMapNode(mapNode, ((CompoundTag)value).getValue());
                 return mapNode;
             }
@@ -204,39 +204,39 @@ public class NBTCodec extends StreamFileCodec
         }
         else if (value instanceof BooleanNode)
         {
-            return new ByteTag(name, (Boolean)value.getValue());
+            return new ByteTag(name, ((BooleanNode)value).getBoolean());
         }
         else if (value instanceof ByteNode)
         {
-            return new ByteTag(name, (Byte)value.getValue());
+            return new ByteTag(name, ((ByteNode)value).getByte());
         }
         else if (value instanceof CharNode)
         {
-            return new StringTag(name, value.getValue().toString());
+            return new StringTag(name, value.asText());
         }
         else if (value instanceof DoubleNode)
         {
-            return new DoubleTag(name, (Double)value.getValue());
+            return new DoubleTag(name, ((DoubleNode)value).getDouble());
         }
         else if (value instanceof FloatNode)
         {
-            return new FloatTag(name, (Float)value.getValue());
+            return new FloatTag(name, ((FloatNode)value).getFloat());
         }
         else if (value instanceof IntNode)
         {
-            return new IntTag(name, (Integer)value.getValue());
+            return new IntTag(name, ((IntNode)value).getInt());
         }
         else if (value instanceof LongNode)
         {
-            return new LongTag(name, (Long)value.getValue());
+            return new LongTag(name, ((LongNode)value).getLong());
         }
         else if (value instanceof ShortNode)
         {
-            return new ShortTag(name, (Short)value.getValue());
+            return new ShortTag(name, ((ShortNode)value).getShort());
         }
         else if (value instanceof StringNode)
         {
-            return new StringTag(name, (String)value.getValue());
+            return new StringTag(name, ((StringNode)value).getValue());
         }
         else if (value instanceof NullNode)
         {
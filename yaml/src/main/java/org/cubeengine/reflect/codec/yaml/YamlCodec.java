@@ -29,11 +29,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import org.cubeengine.converter.ConversionException;
+import org.cubeengine.converter.node.Comments;
 import org.cubeengine.converter.node.ListNode;
 import org.cubeengine.converter.node.MapNode;
 import org.cubeengine.converter.node.Node;
+import org.cubeengine.converter.node.NodeReader;
 import org.cubeengine.converter.node.NullNode;
 import org.cubeengine.converter.node.StringNode;
+import org.cubeengine.converter.node.TreeNodeReader;
 import org.cubeengine.reflect.Reflected;
 import org.cubeengine.reflect.ReflectedFile;
 import org.cubeengine.reflect.codec.ReaderWriterFileCodec;
@@ -72,13 +75,13 @@ public class YamlCodec extends ReaderWriterFileCodec
             if (in == null)
             {
                 // InputStream null -> reflected was not existent
-                return MapNode.emptyMap();
+                return this.getConverterManager().newMapNode();
             }
             Map<Object, Object> map = (Map<Object, Object>)new Yaml(new SafeConstructor(new LoaderOptions())).load(in);
             if (map == null)
             {
                 // loadValues null -> reflected exists but was empty
-                return MapNode.emptyMap();
+                return this.getConverterManager().newMapNode();
             }
             return (MapNode)this.getConverterManager().convertToNode(map);
         }
@@ -92,6 +95,17 @@ public class YamlCodec extends ReaderWriterFileCodec
         }
     }
 
+    @Override
+    protected NodeReader newReader(Reader in, Reflected reflected) throws ConversionException
+    {
+        if (in == null)
+        {
+            // InputStream null -> reflected was not existent
+            return new TreeNodeReader(this.getConverterManager().newMapNode());
+        }
+        return new YamlNodeReader(this, in);
+    }
+
     // Reflected saving Methods
     @Override
     protected final void save(MapNode node, Writer writer, Reflected reflected) throws ConversionException
@@ -184,7 +198,7 @@ public class YamlCodec extends ReaderWriterFileCodec
                 hasLine = true;
             }
             StringBuilder sb = new StringBuilder();
-            String comment = buildComment(entry.getValue().getComments(), offset);
+            String comment = buildComment(entry.getValue().getSharedComments(), offset);
             if (!isEmpty(comment.trim()))
             {
                 // if not already one line free
@@ -310,17 +324,18 @@ public class YamlCodec extends ReaderWriterFileCodec
      *
      * @return the built comment
      */
-    private String buildComment(String[] comments, int offset)
+    private String buildComment(Comments comments, int offset)
     {
-        if (comments == null || comments.length == 0)
+        if (comments == null || comments.isEmpty())
         {
             //No Comment
             return "";
         }
         String off = getOffset(offset);
         StringBuilder sb = new StringBuilder();
-        for (String comment : comments)
+        for (int i = 0; i < comments.size(); i++)
         {
+            String comment = comments.get(i);
             if (isEmpty(comment))
             {
                 continue;
@@ -0,0 +1,405 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.codec.yaml;
+
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.cubeengine.converter.ConversionException;
+import org.cubeengine.converter.ConverterManager;
+import org.cubeengine.converter.node.ListNode;
+import org.cubeengine.converter.node.MapNode;
+import org.cubeengine.converter.node.Node;
+import org.cubeengine.converter.node.NodeReader;
+import org.cubeengine.converter.node.TreeNodeReader;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * A NodeReader over the events of the YAML parser
+ * <p>Scalars are resolved and constructed like the {@link SafeConstructor} does when loading a whole document.
+ * Anchored values are held in memory to resolve their aliases. The entries of merge keys are read in place of the
+ * merge key, explicit keys of the map always take precedence over merged keys.
+ * <p>To not hold every key of large maps in memory, the keys of a map are only remembered once the document defined
+ * an anchor. A merge key in a map that read other keys before the first anchor cannot be streamed and fails, such
+ * documents have to be loaded as a whole.
+ */
+final class YamlNodeReader extends NodeReader
+{
+    private final YamlCodec codec;
+    private final Reader in;
+    private final Iterator<Event> events;
+    private final ScalarConstructor constructor = new ScalarConstructor();
+    private final Resolver resolver = new Resolver();
+    private final ConverterManager manager;
+
+    private final Deque<Frame> frames = new ArrayDeque<Frame>();
+    private final Map<String, Node> anchors = new HashMap<String, Node>();
+    private TreeNodeReader delegate;
+    private boolean merging;
+
+    YamlNodeReader(YamlCodec codec, Reader in)
+    {
+        this.codec = codec;
+        this.in = in;
+        this.manager = codec.getConverterManager();
+        this.events = new Yaml(new SafeConstructor(new LoaderOptions())).parse(in).iterator();
+    }
+
+    @Override
+    protected Token read() throws ConversionException
+    {
+        if (this.delegate != null)
+        {
+            Token token = this.delegate.next();
+            if (this.merging && token == Token.END_MAP && this.delegate.peek() == Token.END_DOCUMENT)
+            {
+                // merged entries were read, continue with the map
+                this.delegate = null;
+                this.merging = false;
+                return this.read();
+            }
+            if (token == Token.END_DOCUMENT)
+            {
+                this.delegate = null;
+                this.valueRead();
+                return this.read();
+            }
+            switch (token)
+            {
+                case KEY:
+                    return this.key(this.delegate.getKey());
+                case VALUE:
+                    return this.value(this.delegate.getValue());
+                default:
+                    return token;
+            }
+        }
+
+        Event event = this.nextEvent();
+        while (event != null && (event.is(Event.ID.StreamStart) || event.is(Event.ID.DocumentStart) || event.is(Event.ID.DocumentEnd)))
+        {
+            event = this.nextEvent();
+        }
+        if (event == null || event.is(Event.ID.StreamEnd))
+        {
+            return Token.END_DOCUMENT;
+        }
+
+        Frame frame = this.frames.peek();
+        if (frame != null && frame.map && frame.expectKey)
+        {
+            if (event.is(Event.ID.MappingEnd))
+            {
+                this.frames.pop();
+                this.valueRead();
+                return Token.END_MAP;
+            }
+            if (event instanceof ScalarEvent && this.isMergeKey((ScalarEvent)event))
+            {
+                this.merge(frame, this.compose(this.nextEvent()));
+                return this.read();
+            }
+            frame.expectKey = false;
+            String key = this.keyOf(event);
+            if (frame.keys == null && !this.anchors.isEmpty())
+            {
+                // merge keys refer to anchors, from now on the keys may be needed
+                frame.keys = new HashSet<String>();
+            }
+            if (frame.keys == null)
+            {
+                frame.untracked = true;
+            }
+            else
+            {
+                frame.keys.add(this.isCaseSensitiveKeys() ? key : MapNode.normalizeKey(key));
+            }
+            return this.key(key);
+        }
+        if (event.is(Event.ID.SequenceEnd))
+        {
+            this.frames.pop();
+            this.valueRead();
+            return Token.END_LIST;
+        }
+        if (!(event instanceof NodeEvent))
+        {
+            throw ConversionException.of(this.codec, event, "Unexpected YAML event!");
+        }
+        if (event instanceof AliasEvent || ((NodeEvent)event).getAnchor() != null)
+        {
+            // anchored values are needed to resolve aliases later
+            this.delegate = new TreeNodeReader(this.compose(event));
+            return this.read();
+        }
+        if (event instanceof ScalarEvent)
+        {
+            this.valueRead();
+            return this.value(this.manager.convertToNode(this.construct((ScalarEvent)event)));
+        }
+        if (event.is(Event.ID.MappingStart))
+        {
+            this.frames.push(new Frame(true));
+            return Token.START_MAP;
+        }
+        if (event.is(Event.ID.SequenceStart))
+        {
+            this.frames.push(new Frame(false));
+            return Token.START_LIST;
+        }
+        throw ConversionException.of(this.codec, event, "Unexpected YAML event!");
+    }
+
+    /**
+     * Marks the value in the current map as read
+     */
+    private void valueRead()
+    {
+        Frame frame = this.frames.peek();
+        if (frame != null && frame.map)
+        {
+            frame.expectKey = true;
+        }
+    }
+
+    private Event nextEvent() throws ConversionException
+    {
+        try
+        {
+            return this.events.hasNext() ? this.events.next() : null;
+        }
+        catch (YAMLException ex)
+        {
+            throw ConversionException.of(this.codec, this.in, "Failed to parse the YAML reflected object. Try encoding it as UTF-8 or validate on yamllint.com", ex);
+        }
+    }
+
+    /**
+     * Reads the value starting with given event into Nodes
+     *
+     * @param event the first event of the value
+     *
+     * @return the Node
+     */
+    private Node compose(Event event) throws ConversionException
+    {
+        if (event instanceof AliasEvent)
+        {
+            Node node = this.anchors.get(((AliasEvent)event).getAnchor());
+            if (node == null)
+            {
+                throw ConversionException.of(this.codec, event, "Found undefined alias!");
+            }
+            return node;
+        }
+        Node node;
+        if (event instanceof ScalarEvent)
+        {
+            node = this.manager.convertToNode(this.construct((ScalarEvent)event));
+        }
+        else if (event != null && event.is(Event.ID.MappingStart))
+        {
+            MapNode map = this.newMapNode();
+            for (Event key = this.nextEvent(); key != null && !key.is(Event.ID.MappingEnd); key = this.nextEvent())
+            {
+                if (key instanceof ScalarEvent && this.isMergeKey((ScalarEvent)key))
+                {
+                    mergeInto(map, this.compose(this.nextEvent()));
+                }
+                else
+                {
+                    map.set(this.keyOf(key), this.compose(this.nextEvent()));
+                }
+            }
+            node = map;
+        }
+        else if (event != null && event.is(Event.ID.SequenceStart))
+        {
+            ListNode list = ListNode.emptyList();
+            for (Event value = this.nextEvent(); value != null && !value.is(Event.ID.SequenceEnd); value = this.nextEvent())
+            {
+                list.addNode(this.compose(value));
+            }
+            node = list;
+        }
+        else
+        {
+            throw ConversionException.of(this.codec, event, "Unexpected YAML event!");
+        }
+        String anchor = ((NodeEvent)event).getAnchor();
+        if (anchor != null)
+        {
+            this.anchors.put(anchor, node);
+        }
+        return node;
+    }
+
+    private String keyOf(Event event) throws ConversionException
+    {
+        Node key = this.compose(event);
+        if (key instanceof MapNode || key instanceof ListNode)
+        {
+            throw ConversionException.of(this.codec, event, "Complex keys are not supported!");
+        }
+        return key.asText();
+    }
+
+    private boolean isMergeKey(ScalarEvent event)
+    {
+        return event.getTag() == null && Tag.MERGE.equals(this.resolve(event));
+    }
+
+    /**
+     * Reads the entries of merged maps in place of the merge key
+     * <p>Keys already read from the map are not merged, keys read later are read again and take precedence.
+     * Fails if not all keys already read are known.
+     *
+     * @param frame  the map merged into
+     * @param merged the merged map or list of maps
+     */
+    private void merge(Frame frame, Node merged) throws ConversionException
+    {
+        if (frame.untracked)
+        {
+            throw ConversionException.of(this.codec, merged, "Cannot stream a merge key after keys read before the first anchor!");
+        }
+        MapNode map = this.newMapNode();
+        mergeInto(map, merged);
+        if (frame.keys != null)
+        {
+            for (String key : frame.keys)
+            {
+                map.getMappedNodes().remove(key);
+            }
+        }
+        this.delegate = new TreeNodeReader(map);
+        this.delegate.next(); // START_MAP
+        this.merging = true;
+    }
+
+    /**
+     * Merges the entries of given map or list of maps into the map if not set yet
+     *
+     * @param map    the map to merge into
+     * @param merged the merged map or list of maps
+     */
+    private void mergeInto(MapNode map, Node merged) throws ConversionException
+    {
+        if (merged instanceof ListNode)
+        {
+            // earlier maps take precedence
+            for (Node node : ((ListNode)merged).getValue())
+            {
+                mergeInto(map, node);
+            }
+        }
+        else if (merged instanceof MapNode)
+        {
+            MapNode mergedMap = (MapNode)merged;
+            for (Entry<String, Node> entry : mergedMap.getMappedNodes().entrySet())
+            {
+                if (map.get(entry.getKey()) == null)
+                {
+                    map.set(mergedMap.getOriginalKey(entry.getKey()), entry.getValue());
+                }
+            }
+        }
+        else
+        {
+            throw ConversionException.of(this.codec, merged, "Expected a mapping for merging!");
+        }
+    }
+
+    private Tag resolve(ScalarEvent event)
+    {
+        return this.resolver.resolve(NodeId.scalar, event.getValue(), event.getImplicit().canOmitTagInPlainScalar());
+    }
+
+    private Object construct(ScalarEvent event) throws ConversionException
+    {
+        boolean resolved = event.getTag() == null || "!".equals(event.getTag());
+        Tag tag = resolved ? this.resolve(event) : new Tag(event.getTag());
+        try
+        {
+            return this.constructor.construct(new ScalarNode(tag, resolved, event.getValue(), event.getStartMark(),
+                                                             event.getEndMark(), event.getScalarStyle()));
+        }
+        catch (YAMLException ex)
+        {
+            throw ConversionException.of(this.codec, this.in, "Failed to parse the YAML reflected object. Try encoding it as UTF-8 or validate on yamllint.com", ex);
+        }
+    }
+
+    private static final class Frame
+    {
+        private final boolean map;
+        private boolean expectKey = true;
+        /**
+         * The normalized keys read from a map since the document defined an anchor
+         */
+        private Set<String> keys;
+        /**
+         * Whether keys were read before the document defined an anchor
+         */
+        private boolean untracked = false;
+
+        private Frame(boolean map)
+        {
+            this.map = map;
+        }
+    }
+
+    /**
+     * Constructs single scalars without remembering them
+     */
+    private static final class ScalarConstructor extends SafeConstructor
+    {
+        private ScalarConstructor()
+        {
+            super(new LoaderOptions());
+        }
+
+        private Object construct(ScalarNode node)
+        {
+            return this.getConstructor(node).construct(node);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.yaml;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import org.cubeengine.reflect.BatchResult;
+import org.cubeengine.reflect.Reflector;
+import org.cubeengine.reflect.codec.yaml.ReflectedYaml;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BatchResultTest
+{
+    private Reflector factory;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        factory = new Reflector();
+    }
+
+    @Test
+    public void testLoadAll() throws Exception
+    {
+        File directory = new File("../testReflectedDir");
+        directory.mkdirs();
+        List<SimpleYaml> reflected = new ArrayList<SimpleYaml>();
+        for (int i = 0; i < 10; i++)
+        {
+            SimpleYaml simple = factory.create(SimpleYaml.class);
+            simple.setFile(new File(directory, i + ".yml"));
+            simple.value = "value " + i;
+            reflected.add(simple);
+        }
+        assertTrue(factory.saveAll(reflected).isSuccessful());
+        FileWriter writer = new FileWriter(new File(directory, "invalid.yml"));
+        writer.write("value: [unclosed");
+        writer.close();
+
+        BatchResult<SimpleYaml> result = factory.loadAll(SimpleYaml.class, directory.toPath());
+        assertEquals(10, result.getResults().size());
+        assertEquals(1, result.getErrors().size());
+        assertEquals("value 3", result.getResult(result.getFiles().indexOf(new File(directory, "3.yml"))).value);
+        assertTrue(result.getError(result.getFiles().indexOf(new File(directory, "invalid.yml"))) != null);
+
+        List<SimpleYaml> duplicates = new ArrayList<SimpleYaml>();
+        duplicates.add(reflected.get(0));
+        duplicates.add(reflected.get(0));
+        BatchResult<SimpleYaml> saved = factory.saveAll(duplicates, 1);
+        assertTrue(saved.isSuccessful());
+        assertEquals(2, saved.getResults().size());
+
+        Thread.currentThread().interrupt();
+        BatchResult<SimpleYaml> interrupted = factory.saveAll(reflected);
+        assertTrue(Thread.interrupted());
+        assertEquals(reflected.size(), interrupted.getErrors().size());
+        assertTrue(interrupted.getError(0) instanceof CancellationException);
+        for (File f : directory.listFiles())
+        {
+            f.delete();
+        }
+        directory.delete();
+    }
+
+    @Test(timeout = 10000)
+    public void testInterruptWhileSaving() throws Exception
+    {
+        File directory = new File("../testInterruptedDir");
+        directory.mkdirs();
+        List<BlockingYaml> reflected = new ArrayList<BlockingYaml>();
+        for (int i = 0; i < 2; i++)
+        {
+            BlockingYaml blocking = factory.create(BlockingYaml.class);
+            blocking.setFile(new File(directory, i + ".yml"));
+            reflected.add(blocking);
+        }
+        final Thread caller = Thread.currentThread();
+        final BlockingYaml first = reflected.get(0);
+        Thread interrupter = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    first.started.await();
+                    caller.interrupt();
+                    Thread.sleep(50);
+                }
+                catch (InterruptedException ignored)
+                {
+                }
+                first.release.countDown();
+            }
+        });
+        interrupter.start();
+        BatchResult<BlockingYaml> result = factory.saveAll(reflected, 1);
+        assertTrue(Thread.interrupted());
+        assertEquals(null, result.getError(0)); // started before the interrupt -> saved
+        assertTrue(new File(directory, "0.yml").exists());
+        assertTrue(result.getError(1) instanceof CancellationException);
+        assertFalse(new File(directory, "1.yml").exists());
+        interrupter.join();
+        for (File f : directory.listFiles())
+        {
+            f.delete();
+        }
+        directory.delete();
+    }
+
+    public static class BlockingYaml extends ReflectedYaml
+    {
+        private final transient CountDownLatch started = new CountDownLatch(1);
+        private final transient CountDownLatch release = new CountDownLatch(1);
+
+        public String value = "value";
+
+        @Override
+        public void onSave()
+        {
+            started.countDown();
+            try
+            {
+                release.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
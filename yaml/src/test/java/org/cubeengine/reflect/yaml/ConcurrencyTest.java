@@ -0,0 +1,147 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.yaml;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import org.cubeengine.converter.converter.generic.CollectionConverter;
+import org.cubeengine.reflect.ReflectedFile;
+import org.cubeengine.reflect.ReflectedTestFile;
+import org.cubeengine.reflect.ReflectedTest2;
+import org.cubeengine.reflect.Reflector;
+import org.cubeengine.reflect.codec.yaml.ReflectedYaml;
+import org.cubeengine.reflect.codec.yaml.YamlCodec;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.cubeengine.reflect.util.AssertionUtils.assertEqualsDeep;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrencyTest
+{
+    private Reflector factory;
+    private YamlCodec codec;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        factory = new Reflector();
+        codec = factory.getCodecManager().getCodec(YamlCodec.class);
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception
+    {
+        final Reflector reflector = new Reflector();
+        final int threadCount = 16;
+        final YamlCodec[] codecs = new YamlCodec[threadCount];
+        final Queue<Throwable> errors = new ConcurrentLinkedQueue<Throwable>();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++)
+        {
+            final int index = i;
+            threads[i] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                        YamlCodec codec = reflector.getCodecManager().getCodec(YamlCodec.class);
+                        codecs[index] = codec;
+                        for (int j = 0; j < 20; j++)
+                        {
+                            ReflectedFile expected;
+                            switch ((index + j) % 3)
+                            {
+                                case 0:
+                                    expected = ReflectedTestFile.getDefaultReflectedTest(reflector);
+                                    break;
+                                case 1:
+                                    expected = reflector.create(ReflectedTest2.class);
+                                    break;
+                                default:
+                                    expected = reflector.create(SimpleYaml.class);
+                            }
+                            StringWriter writer = new StringWriter();
+                            codec.saveReflected(expected, writer);
+                            ReflectedFile actual = reflector.create(expected.getClass());
+                            codec.loadReflected(actual, new StringReader(writer.toString()));
+                            assertEqualsDeep(codec.getConverterManager(), expected, actual);
+                        }
+                    }
+                    catch (Throwable t)
+                    {
+                        errors.add(t);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+        for (YamlCodec codec : codecs)
+        {
+            assertTrue(codec == codecs[0]);
+        }
+    }
+
+    @Test
+    public void testParallelSections() throws Exception
+    {
+        codec.getConverterManager().getConverterByClass(CollectionConverter.class).setParallelThreshold(50);
+        SectionsYaml sections = factory.create(SectionsYaml.class);
+        for (int i = 0; i < 500; i++)
+        {
+            StreamedYaml.Inner inner = new StreamedYaml.Inner();
+            inner.count = i;
+            sections.sections.add(inner);
+        }
+        StringWriter writer = new StringWriter();
+        codec.saveReflected(sections, writer);
+        SectionsYaml loaded = factory.create(SectionsYaml.class);
+        codec.loadReflected(loaded, new StringReader(writer.toString()));
+        assertEquals(500, loaded.sections.size());
+        for (int i = 0; i < 500; i++)
+        {
+            assertEquals(i, loaded.sections.get(i).count);
+        }
+    }
+
+    public static class SectionsYaml extends ReflectedYaml
+    {
+        public List<StreamedYaml.Inner> sections = new ArrayList<StreamedYaml.Inner>();
+    }
+}
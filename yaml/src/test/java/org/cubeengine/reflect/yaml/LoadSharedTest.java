@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.yaml;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cubeengine.reflect.Reflector;
+import org.cubeengine.reflect.codec.yaml.ReflectedYaml;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LoadSharedTest
+{
+    private Reflector factory;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        factory = new Reflector();
+    }
+
+    @Test
+    public void testLoadShared() throws Exception
+    {
+        final File file = new File("../testShared.yml");
+        factory.create(SlowYaml.class).save(file);
+        final SlowYaml[] loaded = new SlowYaml[2];
+        Thread first = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                loaded[0] = factory.loadShared(SlowYaml.class, file);
+            }
+        });
+        Thread second = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                loaded[1] = factory.loadShared(SlowYaml.class, file);
+            }
+        });
+        first.start();
+        while (SlowYaml.LOADS.get() == 0)
+        {
+            Thread.sleep(1);
+        }
+        second.start();
+        while (second.getState() != Thread.State.WAITING)
+        {
+            Thread.sleep(1);
+        }
+        SlowYaml.RELEASE.countDown();
+        first.join();
+        second.join();
+        assertEquals(1, SlowYaml.LOADS.get());
+        assertTrue(loaded[0] == loaded[1]);
+        file.delete();
+    }
+
+    @Test(timeout = 10000)
+    public void testLoadSharedReentrant() throws Exception
+    {
+        File file = new File("../testSharedReentrant.yml");
+        factory.create(ReentrantYaml.class).save(file);
+        ReentrantYaml loaded = factory.loadShared(ReentrantYaml.class, file);
+        assertTrue("no nested load", loaded.nested != null);
+        assertTrue(loaded.nested != loaded);
+        file.delete();
+    }
+
+    public static class SlowYaml extends ReflectedYaml
+    {
+        private static final AtomicInteger LOADS = new AtomicInteger();
+        private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+        public String value = "value";
+
+        @Override
+        public void onLoad()
+        {
+            LOADS.incrementAndGet();
+            try
+            {
+                RELEASE.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static class ReentrantYaml extends ReflectedYaml
+    {
+        private static final ThreadLocal<Boolean> NESTED = new ThreadLocal<Boolean>()
+        {
+            @Override
+            protected Boolean initialValue()
+            {
+                return false;
+            }
+        };
+
+        public String value = "value";
+
+        private transient ReentrantYaml nested;
+
+        @Override
+        public void onLoaded(File loadedFrom)
+        {
+            if (!NESTED.get())
+            {
+                NESTED.set(true);
+                try
+                {
+                    this.nested = getReflector().loadShared(ReentrantYaml.class, loadedFrom);
+                }
+                finally
+                {
+                    NESTED.set(false);
+                }
+            }
+        }
+    }
+}
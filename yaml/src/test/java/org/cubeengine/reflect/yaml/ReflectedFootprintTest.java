@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.yaml;
+
+import java.io.File;
+import java.io.FileWriter;
+import org.cubeengine.reflect.FootprintStats;
+import org.cubeengine.reflect.ReflectedFootprint;
+import org.cubeengine.reflect.Reflector;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReflectedFootprintTest
+{
+    private Reflector factory;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        factory = new Reflector();
+    }
+
+    @Test
+    public void testFootprint() throws Exception
+    {
+        File small = new File("../testFootprintSmall.yml");
+        File large = new File("../testFootprintLarge.yml");
+        FileWriter writer = new FileWriter(small);
+        writer.write("list: [a]\n");
+        writer.close();
+        writer = new FileWriter(large);
+        writer.write("list: [a, b, c, d, e, f, g, h]\n");
+        writer.close();
+
+        factory.setFootprintTracking(true);
+        StreamedYaml smallYaml = factory.load(StreamedYaml.class, small, false);
+        StreamedYaml largeYaml = factory.load(StreamedYaml.class, large, false);
+        small.delete();
+        large.delete();
+
+        assertTrue(ReflectedFootprint.estimate(largeYaml) > ReflectedFootprint.estimate(smallYaml));
+        FootprintStats stats = factory.getFootprintStats(StreamedYaml.class);
+        assertEquals(2, stats.getCount());
+        assertEquals(ReflectedFootprint.estimate(largeYaml), stats.getMax());
+        assertEquals(large, stats.getLargestTarget());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.yaml;
+
+import java.io.File;
+import java.io.FileWriter;
+import org.cubeengine.reflect.Reflector;
+import org.cubeengine.reflect.ReflectedRef;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReflectedRefTest
+{
+    private Reflector factory;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        factory = new Reflector();
+    }
+
+    @Test
+    public void testReflectedRef() throws Exception
+    {
+        File parentFile = new File("../testRefParent.yml");
+        File childFile = new File("../testRefChild.yml");
+        SimpleYaml parent = factory.create(SimpleYaml.class);
+        parent.value = "parent";
+        parent.setFile(parentFile);
+        parent.save();
+
+        FileWriter writer = new FileWriter(childFile);
+        writer.write("{}");
+        writer.close();
+
+        ReflectedRef<SimpleYaml> parentRef = new ReflectedRef<SimpleYaml>(parent);
+        ReflectedRef<SimpleYaml> childRef = parentRef.loadChild(childFile);
+        assertEquals("parent", childRef.get().value);
+
+        SimpleYaml changed = factory.create(SimpleYaml.class);
+        changed.value = "changed";
+        changed.save(parentFile);
+        SimpleYaml reloaded = parentRef.reload();
+        assertTrue(reloaded != parent);
+        assertTrue(parentRef.get() == reloaded);
+        assertEquals("parent", parent.value); // previous version is untouched
+        assertEquals("changed", reloaded.value);
+        assertTrue(childRef.get().getDefault() == reloaded);
+        assertEquals("changed", childRef.get().value);
+        parentFile.delete();
+        childFile.delete();
+    }
+
+    @Test
+    public void testReflectedRefChildFailure() throws Exception
+    {
+        File parentFile = new File("../testRefParent.yml");
+        File brokenFile = new File("../testRefBroken.yml");
+        File childFile = new File("../testRefChild.yml");
+        SimpleYaml parent = factory.create(SimpleYaml.class);
+        parent.value = "parent";
+        parent.setFile(parentFile);
+        parent.save();
+
+        FileWriter writer = new FileWriter(brokenFile);
+        writer.write("{}");
+        writer.close();
+        writer = new FileWriter(childFile);
+        writer.write("{}");
+        writer.close();
+
+        ReflectedRef<SimpleYaml> parentRef = new ReflectedRef<SimpleYaml>(parent);
+        ReflectedRef<SimpleYaml> brokenRef = parentRef.loadChild(brokenFile);
+        ReflectedRef<SimpleYaml> childRef = parentRef.loadChild(childFile);
+
+        writer = new FileWriter(brokenFile);
+        writer.write("value: [unclosed");
+        writer.close();
+        SimpleYaml changed = factory.create(SimpleYaml.class);
+        changed.value = "changed";
+        changed.save(parentFile);
+        try
+        {
+            parentRef.reload();
+            assertTrue("reloading the broken child did not fail", false);
+        }
+        catch (RuntimeException ignored)
+        {
+        }
+        assertEquals("changed", parentRef.get().value);
+        assertEquals("parent", brokenRef.get().value); // previous version stays published
+        assertEquals("changed", childRef.get().value); // later children still got reloaded
+
+        assertTrue(parentRef.removeChild(brokenRef));
+        assertFalse(parentRef.removeChild(brokenRef));
+        parentRef.reload();
+        parentFile.delete();
+        brokenFile.delete();
+        childFile.delete();
+    }
+}
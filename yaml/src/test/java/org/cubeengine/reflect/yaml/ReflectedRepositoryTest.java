@@ -0,0 +1,122 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.yaml;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+import org.cubeengine.reflect.Reflector;
+import org.cubeengine.reflect.ReflectedRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReflectedRepositoryTest
+{
+    private Reflector factory;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        factory = new Reflector();
+    }
+
+    @Test
+    public void testRepository() throws Exception
+    {
+        final File directory = new File("../testReflectedRepo");
+        directory.mkdirs();
+        ReflectedRepository<Integer, SimpleYaml> repository = new ReflectedRepository<Integer, SimpleYaml>(
+            factory, SimpleYaml.class, new ReflectedRepository.Locator<Integer>()
+        {
+            @Override
+            public File getFile(Integer key)
+            {
+                return new File(directory, key + ".yml");
+            }
+        }, 2);
+        SimpleYaml pinned = repository.pin(0);
+        repository.get(1).value = "changed";
+        repository.markDirty(1);
+        repository.get(2);
+        repository.get(3);
+        assertEquals(2, repository.size());
+        assertTrue(pinned == repository.getIfPresent(0));
+        assertEquals("changed", repository.get(1).value); // written back on eviction
+        factory.submit(new File(directory, "1.yml"), new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                return null; // waits for the write back
+            }
+        }).get();
+        for (File f : directory.listFiles())
+        {
+            f.delete();
+        }
+        directory.delete();
+    }
+
+    @Test(timeout = 5000)
+    public void testRepositoryOversized() throws Exception
+    {
+        final File directory = new File("../testReflectedRepoOversized");
+        directory.mkdirs();
+        ReflectedRepository<Integer, SimpleYaml> repository = new ReflectedRepository<Integer, SimpleYaml>(
+            factory, SimpleYaml.class, new ReflectedRepository.Locator<Integer>()
+        {
+            @Override
+            public File getFile(Integer key)
+            {
+                return new File(directory, key + ".yml");
+            }
+        }, 0);
+        SimpleYaml pinned = repository.pin(0);
+        assertTrue(pinned == repository.getIfPresent(0));
+        SimpleYaml reflected = repository.get(1);
+        assertTrue(reflected == repository.getIfPresent(1));
+        reflected.value = "changed";
+        repository.markDirty(1);
+        repository.get(2);
+        repository.flush();
+        assertEquals(2, repository.size()); // pinned and last accessed
+        assertEquals("changed", repository.get(1).value);
+        repository.unpin(0);
+        assertEquals(0, repository.size());
+        factory.submit(new File(directory, "1.yml"), new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                return null; // waits for the write back
+            }
+        }).get();
+        for (File f : directory.listFiles())
+        {
+            f.delete();
+        }
+        directory.delete();
+    }
+}
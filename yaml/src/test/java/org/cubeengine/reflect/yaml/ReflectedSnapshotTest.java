@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.yaml;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.cubeengine.reflect.ReflectedTestFile;
+import org.cubeengine.reflect.Reflector;
+import org.cubeengine.reflect.codec.yaml.ReflectedYaml;
+import org.cubeengine.reflect.codec.yaml.YamlCodec;
+import org.cubeengine.reflect.exception.InvalidReflectedObjectException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.cubeengine.reflect.util.AssertionUtils.assertEqualsDeep;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReflectedSnapshotTest
+{
+    private File file;
+    private Reflector factory;
+    private YamlCodec codec;
+    private ReflectedTestFile test1;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        file = new File("../testSnapshot.yml");
+        factory = new Reflector();
+        codec = factory.getCodecManager().getCodec(YamlCodec.class);
+        test1 = ReflectedTestFile.getDefaultReflectedTest(factory);
+    }
+
+    @Test
+    public void testSnapshot() throws Exception
+    {
+        ReflectedTestFile snapshot = (ReflectedTestFile)test1.snapshot();
+        assertEqualsDeep(codec.getConverterManager(), test1, snapshot);
+        assertTrue(snapshot.maps.map1 != test1.maps.map1);
+        test1.maps.map1.put("changed", 1);
+        assertFalse(snapshot.maps.map1.containsKey("changed"));
+
+        SimpleYaml reflected = factory.load(SimpleYaml.class, file);
+        reflected.value = "snapshot";
+        CompletableFuture<Void> future = reflected.saveSnapshotAsync();
+        reflected.value = "changed after snapshot";
+        future.get();
+        assertFalse(reflected.hasChanged());
+        assertEquals("snapshot", factory.load(SimpleYaml.class, file, false).value);
+        file.delete();
+    }
+
+    @Test
+    public void testSnapshotContainers() throws Exception
+    {
+        ContainersYaml reflected = factory.create(ContainersYaml.class);
+        reflected.enumMap.put(TimeUnit.SECONDS, "s");
+        reflected.enumSet.add(TimeUnit.DAYS);
+        reflected.sorted.addAll(Arrays.asList("a", "c", "b"));
+        ContainersYaml snapshot = reflected.snapshot();
+        assertTrue(snapshot.enumMap instanceof EnumMap);
+        assertTrue(snapshot.enumMap != reflected.enumMap);
+        assertEquals(reflected.enumMap, snapshot.enumMap);
+        assertTrue(snapshot.enumSet instanceof EnumSet);
+        assertTrue(snapshot.enumSet != reflected.enumSet);
+        assertEquals(reflected.enumSet, snapshot.enumSet);
+        assertTrue(snapshot.fixed != reflected.fixed);
+        assertEquals(reflected.fixed, snapshot.fixed);
+        assertTrue(snapshot.sorted != reflected.sorted);
+        assertEquals(Arrays.asList("c", "b", "a"), new ArrayList<String>(snapshot.sorted));
+        reflected.fixed.set(0, "changed");
+        assertEquals("a", snapshot.fixed.get(0));
+    }
+
+    @Test
+    public void testSnapshotDeclaredContainer() throws Exception
+    {
+        CustomMapYaml reflected = factory.create(CustomMapYaml.class);
+        reflected.map.put("key", "value");
+        CustomMapYaml snapshot = reflected.snapshot();
+        assertTrue(snapshot.map != reflected.map);
+        assertEquals(reflected.map, snapshot.map);
+    }
+
+    @Test(expected = InvalidReflectedObjectException.class)
+    public void testSnapshotUncopyableContainer() throws Exception
+    {
+        factory.create(FixedMapYaml.class).snapshot();
+    }
+
+    public static class ContainersYaml extends ReflectedYaml
+    {
+        public Map<TimeUnit, String> enumMap = new EnumMap<TimeUnit, String>(TimeUnit.class);
+        public Set<TimeUnit> enumSet = EnumSet.noneOf(TimeUnit.class);
+        public List<String> fixed = Arrays.asList("a", "b");
+        public SortedSet<String> sorted = new TreeSet<String>(Collections.<String>reverseOrder());
+    }
+
+    public static class CustomMapYaml extends ReflectedYaml
+    {
+        public CustomMap map = new CustomMap(4);
+    }
+
+    public static class FixedMapYaml extends ReflectedYaml
+    {
+        public FixedMap map = new FixedMap(4);
+    }
+
+    /**
+     * Not copyable into its own class, but into the declared type of the field
+     */
+    public static class CustomMap extends HashMap<String, String>
+    {
+        public CustomMap(int capacity)
+        {
+            super(capacity);
+        }
+
+        private CustomMap()
+        {
+        }
+    }
+
+    /**
+     * Not copyable at all
+     */
+    public static class FixedMap extends HashMap<String, String>
+    {
+        public FixedMap(int capacity)
+        {
+            super(capacity);
+        }
+    }
+}
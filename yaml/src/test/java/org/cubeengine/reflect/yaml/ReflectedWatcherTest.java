@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.yaml;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.cubeengine.reflect.ReflectedFile;
+import org.cubeengine.reflect.Reflector;
+import org.cubeengine.reflect.ReflectedWatcher;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReflectedWatcherTest
+{
+    private File file;
+    private Reflector factory;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        file = new File("../testWatcher.yml");
+        factory = new Reflector();
+    }
+
+    @Test
+    public void testReloadIfChanged() throws Exception
+    {
+        SimpleYaml reflected = factory.load(SimpleYaml.class, file);
+        assertFalse(reflected.reloadIfChanged());
+        reflected.value = "changed";
+        reflected.save();
+        assertFalse(reflected.reloadIfChanged());
+
+        FileWriter writer = new FileWriter(file);
+        writer.write("value: modified externally\n");
+        writer.close();
+        assertTrue(reflected.reloadIfChanged());
+        assertEquals("modified externally", reflected.value);
+        assertFalse(reflected.reloadIfChanged());
+        file.delete();
+    }
+
+    @Test(timeout = 20000)
+    public void testWatcher() throws Exception
+    {
+        File watched = new File("../testWatched.yml");
+        SimpleYaml reflected = factory.create(SimpleYaml.class);
+        reflected.value = "saved";
+        reflected.setFile(watched);
+        reflected.save();
+        final AtomicInteger replaced = new AtomicInteger();
+        final CountDownLatch reloaded = new CountDownLatch(1);
+        ReflectedWatcher watcher = new ReflectedWatcher(10, TimeUnit.MILLISECONDS);
+        try
+        {
+            watcher.register(reflected, new ReflectedWatcher.Listener()
+            {
+                @Override
+                public void onReload(ReflectedFile<?, ?, ?> reflected)
+                {
+                    replaced.incrementAndGet();
+                }
+            });
+            watcher.register(reflected, new ReflectedWatcher.Listener()
+            {
+                @Override
+                public void onReload(ReflectedFile<?, ?, ?> reflected)
+                {
+                    reloaded.countDown();
+                }
+            });
+            reflected.value = "saved again";
+            reflected.save(); // own changes do not reload
+            assertFalse(reflected.hasChanged());
+
+            FileWriter writer = new FileWriter(watched);
+            writer.write("value: changed externally\n");
+            writer.close();
+            reloaded.await();
+            assertEquals("changed externally", reflected.value);
+            assertEquals(0, replaced.get());
+        }
+        finally
+        {
+            watcher.close();
+            watched.delete();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testListenerExecutor() throws Exception
+    {
+        File watched = new File("../testWatchedExecutor.yml");
+        SimpleYaml reflected = factory.create(SimpleYaml.class);
+        reflected.setFile(watched);
+        reflected.save();
+        final BlockingQueue<Runnable> mainTasks = new LinkedBlockingQueue<Runnable>();
+        final AtomicReference<Thread> called = new AtomicReference<Thread>();
+        ReflectedWatcher watcher = new ReflectedWatcher(10, TimeUnit.MILLISECONDS, new Executor()
+        {
+            @Override
+            public void execute(Runnable command)
+            {
+                mainTasks.add(command);
+            }
+        });
+        try
+        {
+            watcher.register(reflected, new ReflectedWatcher.Listener()
+            {
+                @Override
+                public void onReload(ReflectedFile<?, ?, ?> reflected)
+                {
+                    called.set(Thread.currentThread());
+                }
+            });
+            FileWriter writer = new FileWriter(watched);
+            writer.write("value: changed externally\n");
+            writer.close();
+            mainTasks.take().run(); // the "main thread" runs the listener
+            assertTrue(called.get() == Thread.currentThread());
+            assertEquals("changed externally", reflected.value);
+        }
+        finally
+        {
+            watcher.close();
+            watched.delete();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.yaml;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.cubeengine.reflect.Reflector;
+import org.cubeengine.reflect.SaveScheduler;
+import org.cubeengine.reflect.codec.yaml.ReflectedYaml;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SaveSchedulerTest
+{
+    private File file;
+    private Reflector factory;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        file = new File("../testSaveScheduler.yml");
+        factory = new Reflector();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        file.delete();
+    }
+
+    @Test
+    public void testCoalesce() throws Exception
+    {
+        SimpleYaml reflected = factory.load(SimpleYaml.class, file);
+        SaveScheduler scheduler = new SaveScheduler(1, TimeUnit.HOURS);
+        for (int i = 0; i < 10; i++)
+        {
+            reflected.value = "save " + i;
+            scheduler.requestSave(reflected);
+        }
+        assertEquals(1, scheduler.getQueueDepth());
+        reflected.value = "not requested";
+        scheduler.close();
+        assertEquals(0, scheduler.getQueueDepth());
+        assertEquals(1, scheduler.getSaveCount());
+        assertEquals("save 9", factory.load(SimpleYaml.class, file, false).value);
+    }
+
+    @Test(timeout = 20000)
+    public void testChangeWhileFlushing() throws Exception
+    {
+        MapYaml reflected = factory.create(MapYaml.class);
+        reflected.setFile(file);
+        SaveScheduler scheduler = new SaveScheduler(1, TimeUnit.MILLISECONDS);
+        long end = System.currentTimeMillis() + 500;
+        for (int i = 0; System.currentTimeMillis() < end; i++)
+        {
+            reflected.map.put("key" + i % 100, i);
+            if (i % 100 == 0)
+            {
+                reflected.map.clear();
+                scheduler.requestSave(reflected);
+            }
+        }
+        scheduler.requestSave(reflected);
+        scheduler.close();
+        assertEquals(0, scheduler.getFailureCount());
+        assertEquals(reflected.map, factory.load(MapYaml.class, file, false).map);
+    }
+
+    @Test
+    public void testRetryFailed() throws Exception
+    {
+        SimpleYaml reflected = factory.create(SimpleYaml.class);
+        reflected.value = "retried";
+        reflected.setFile(file);
+        assertTrue(file.mkdir()); // saving into a directory fails
+        SaveScheduler scheduler = new SaveScheduler(1, TimeUnit.HOURS);
+        scheduler.requestSave(reflected);
+        scheduler.flush();
+        assertEquals(1, scheduler.getFailureCount());
+        assertTrue(scheduler.isPending(reflected));
+
+        assertTrue(file.delete());
+        scheduler.close();
+        assertFalse(scheduler.isPending(reflected));
+        assertEquals(1, scheduler.getSaveCount());
+        assertEquals("retried", factory.load(SimpleYaml.class, file, false).value);
+    }
+
+    public static class MapYaml extends ReflectedYaml
+    {
+        public Map<String, Integer> map = new HashMap<String, Integer>();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.yaml;
+
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.cubeengine.converter.node.KeyPool;
+import org.cubeengine.converter.node.MapNode;
+import org.cubeengine.reflect.ReflectedConverterManager;
+import org.cubeengine.reflect.ReflectedConverterManagerTest.Marker;
+import org.cubeengine.reflect.ReflectedConverterManagerTest.MarkerConverter;
+import org.cubeengine.reflect.Reflector;
+import org.cubeengine.reflect.codec.yaml.ReflectedYaml;
+import org.cubeengine.reflect.codec.yaml.YamlCodec;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class YamlConverterManagerTest
+{
+    private Reflector factory;
+    private YamlCodec codec;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        factory = new Reflector();
+        codec = factory.getCodecManager().getCodec(YamlCodec.class);
+    }
+
+    @Test
+    public void testOwnConverterManager() throws Exception
+    {
+        MarkedYaml reflected = factory.create(MarkedYaml.class);
+        ReflectedConverterManager manager = reflected.getConverterManager();
+        assertTrue(manager == reflected.getConverterManager());
+        manager.registerConverter(new MarkerConverter(), Marker.class);
+        assertEquals("marker", reflected.getCodec().convertReflected(reflected).get("marker").asText());
+        MarkedYaml other = factory.create(MarkedYaml.class);
+        assertTrue(other.getConverterManager() != manager);
+        assertEquals(null, other.getConverterManager().getConverterByClass(MarkerConverter.class));
+    }
+
+    @Test
+    public void testCaseSensitiveKeys() throws Exception
+    {
+        codec.getConverterManager().setCaseSensitiveKeys(true);
+        CaseYaml reflected = factory.create(CaseYaml.class);
+        codec.loadReflected(reflected, new StringReader("Value: upper\nvalue: lower\nmap:\n  Key: a\n  key: b\n"));
+        assertEquals("lower", reflected.value);
+        assertEquals(2, reflected.map.size());
+        assertEquals("a", reflected.map.get("Key"));
+        assertEquals("b", reflected.map.get("key"));
+
+        MapNode node = codec.convertReflected(reflected);
+        assertTrue(node.isCaseSensitive());
+        assertTrue(((MapNode)node.get("map")).isCaseSensitive());
+        assertEquals(null, node.get("Value"));
+
+        CaseYaml tree = factory.create(CaseYaml.class);
+        codec.fillReflected(tree, node);
+        assertEquals(reflected.map, tree.map);
+    }
+
+    @Test
+    public void testKeyPool() throws Exception
+    {
+        KeyPool pool = new KeyPool(64);
+        factory.getDefaultConverterManager().setKeyPool(pool);
+        assertTrue(codec.getConverterManager().getKeyPool() == pool);
+        MapNode first = codec.convertReflected(factory.create(CaseYaml.class));
+        MapNode second = codec.convertReflected(factory.create(CaseYaml.class));
+        assertTrue(first.getKeyPool() == pool);
+        assertTrue(first.getFirstKey() == second.getFirstKey());
+        assertTrue(new Reflector().getDefaultConverterManager().getKeyPool() == null);
+    }
+
+    public static class CaseYaml extends ReflectedYaml
+    {
+        public String value = "value";
+        public Map<String, String> map = new LinkedHashMap<String, String>();
+    }
+
+    public static class MarkedYaml extends ReflectedYaml
+    {
+        public Marker marker = new Marker();
+    }
+}
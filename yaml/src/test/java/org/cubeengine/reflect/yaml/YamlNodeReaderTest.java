@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ * Copyright © 2013 Cube Island
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cubeengine.reflect.yaml;
+
+import java.io.StringReader;
+import java.util.Map;
+import org.cubeengine.converter.node.MapNode;
+import org.cubeengine.reflect.Reflector;
+import org.cubeengine.reflect.codec.yaml.YamlCodec;
+import org.cubeengine.reflect.exception.CodecIOException;
+import org.cubeengine.reflect.exception.InvalidReflectedObjectException;
+import org.junit.Before;
+import org.junit.Test;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import static org.junit.Assert.assertEquals;
+
+public class YamlNodeReaderTest
+{
+    private Reflector factory;
+    private YamlCodec codec;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        factory = new Reflector();
+        codec = factory.getCodecManager().getCodec(YamlCodec.class);
+    }
+
+    @Test
+    public void testStreamedLoad() throws Exception
+    {
+        String yaml = "unknown:\n  deep: [1, {a: b}]\n"
+            + "defaults: &defaults\n  count: 3\n"
+            + "value: &v streamed\n"
+            + "nested:\n  other: 1\n  Number: 42\n"
+            + "list:\n- *v\n- b\n"
+            + "inner:\n  <<: *defaults\n  text: merged\n";
+        StreamedYaml reflected = factory.create(StreamedYaml.class);
+        codec.loadReflected(reflected, new StringReader(yaml));
+        assertEquals("streamed", reflected.value);
+        assertEquals(42, reflected.number);
+        assertEquals(2, reflected.list.size());
+        assertEquals("streamed", reflected.list.get(0));
+        assertEquals(3, reflected.inner.count);
+        assertEquals("merged", reflected.inner.text);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreamedMergeKeys() throws Exception
+    {
+        String yaml = "defaults: &defaults\n  count: 1\n  text: base\n"
+            + "other: &other\n  count: 2\n  text: other\n"
+            + "inner:\n  count: 10\n  <<: [*defaults, *other]\n";
+        StreamedYaml streamed = factory.create(StreamedYaml.class);
+        codec.loadReflected(streamed, new StringReader(yaml));
+
+        Map<Object, Object> map = (Map<Object, Object>)new Yaml(new SafeConstructor(new LoaderOptions())).load(yaml);
+        StreamedYaml tree = factory.create(StreamedYaml.class);
+        codec.fillReflected(tree, (MapNode)codec.getConverterManager().convertToNode(map));
+
+        assertEquals(10, tree.inner.count);
+        assertEquals("base", tree.inner.text);
+        assertEquals(tree.inner.count, streamed.inner.count);
+        assertEquals(tree.inner.text, streamed.inner.text);
+    }
+
+    @Test
+    public void testStreamedInlineMerge() throws Exception
+    {
+        StreamedYaml reflected = factory.create(StreamedYaml.class);
+        codec.loadReflected(reflected, new StringReader("inner:\n  <<: {count: 5, text: merged}\n  text: explicit\n"));
+        assertEquals(5, reflected.inner.count);
+        assertEquals("explicit", reflected.inner.text);
+    }
+
+    @Test(expected = CodecIOException.class)
+    public void testStreamedMergeAfterUntrackedKeys() throws Exception
+    {
+        // the keys read before the first anchor are not remembered
+        codec.loadReflected(factory.create(StreamedYaml.class), new StringReader("value: explicit\n<<: {value: merged}\n"));
+    }
+
+    @Test(expected = CodecIOException.class)
+    public void testStreamedLoadInvalid() throws Exception
+    {
+        codec.loadReflected(factory.create(StreamedYaml.class), new StringReader("value: [\ninner: 1"));
+    }
+
+    @Test(expected = InvalidReflectedObjectException.class)
+    public void testStreamedLoadInvalidSection() throws Exception
+    {
+        codec.loadReflected(factory.create(StreamedYaml.class), new StringReader("inner:\n  count: 1\n  text: [\n"));
+    }
+}